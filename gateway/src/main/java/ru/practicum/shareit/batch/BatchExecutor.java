@@ -0,0 +1,203 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.support.WebBindingInitializer;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+import org.springframework.web.method.support.HandlerMethodArgumentResolverComposite;
+import org.springframework.web.method.support.InvocableHandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ServletRequestDataBinderFactory;
+import org.springframework.web.util.ServletRequestPathUtils;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.dto.BatchItemRequestDto;
+import ru.practicum.shareit.batch.dto.BatchItemResponseDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.client.GzipBodies;
+import ru.practicum.shareit.exception.ErrorHandler;
+import ru.practicum.shareit.exception.ErrorResponse;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(BatchProperties.class)
+public class BatchExecutor {
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final HandlerMethodArgumentResolverComposite argumentResolvers = new HandlerMethodArgumentResolverComposite();
+    private final WebBindingInitializer bindingInitializer;
+    private final ErrorHandler errorHandler;
+    private final ExceptionHandlerMethodResolver exceptionHandlers;
+    private final ObjectMapper objectMapper;
+    private final BatchProperties properties;
+    private final RateLimiter rateLimiter;
+    private final DistributionSummary batchSize;
+
+    public BatchExecutor(@Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                         RequestMappingHandlerAdapter handlerAdapter, ErrorHandler errorHandler,
+                         ObjectMapper objectMapper, BatchProperties properties, RateLimiter rateLimiter,
+                         MeterRegistry meterRegistry) {
+        this.handlerMapping = handlerMapping;
+        this.argumentResolvers.addResolvers(handlerAdapter.getArgumentResolvers());
+        this.bindingInitializer = handlerAdapter.getWebBindingInitializer();
+        this.errorHandler = errorHandler;
+        this.exceptionHandlers = new ExceptionHandlerMethodResolver(ErrorHandler.class);
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+        this.batchSize = DistributionSummary.builder("shareit.gateway.batch.size").register(meterRegistry);
+    }
+
+    public Mono<BatchResponseDto> execute(HttpServletRequest batchRequest, List<BatchItemRequestDto> requests) {
+        if (requests.size() > properties.getMaxSize()) {
+            throw new ValidationException("Пакет содержит " + requests.size() + " запросов, допускается не более "
+                    + properties.getMaxSize());
+        }
+        batchSize.record(requests.size());
+        List<Mono<BatchItemResponseDto>> responses = requests.stream()
+                .map(request -> dispatch(batchRequest, request))
+                .collect(Collectors.toList());
+        return Flux.fromIterable(responses)
+                .flatMapSequential(Function.identity(), properties.getMaxConcurrency())
+                .collectList()
+                .map(BatchResponseDto::new);
+    }
+
+    private Mono<BatchItemResponseDto> dispatch(HttpServletRequest batchRequest, BatchItemRequestDto request) {
+        try {
+            BatchSubRequest subRequest = new BatchSubRequest(batchRequest, request, toBytes(request));
+            if (handlerMapping.usesPathPatterns()) {
+                ServletRequestPathUtils.parseAndCache(subRequest);
+            }
+            HandlerExecutionChain chain;
+            try {
+                chain = handlerMapping.getHandler(subRequest);
+            } catch (HttpRequestMethodNotSupportedException e) {
+                return Mono.just(toResponse(request, HttpStatus.METHOD_NOT_ALLOWED,
+                        new ErrorResponse("Метод " + request.getMethod() + " не поддерживается для "
+                                + request.getPath())));
+            }
+            if (chain == null || !(chain.getHandler() instanceof HandlerMethod)) {
+                return Mono.just(toResponse(request, HttpStatus.NOT_FOUND,
+                        new ErrorResponse("Маршрут " + request.getMethod() + " " + request.getPath() + " не найден")));
+            }
+            HandlerMethod handlerMethod = (HandlerMethod) chain.getHandler();
+            if (BatchController.class.equals(handlerMethod.getBeanType())) {
+                return Mono.just(toResponse(request, HttpStatus.BAD_REQUEST,
+                        new ErrorResponse("Вложенные пакетные запросы не поддерживаются")));
+            }
+            rateLimiter.acquire(subRequest, handlerMethod);
+            return toResponse(request, invoke(handlerMethod, subRequest))
+                    .onErrorResume(e -> Mono.just(toErrorResponse(request, e)));
+        } catch (Exception e) {
+            return Mono.just(toErrorResponse(request, e));
+        }
+    }
+
+    private Object invoke(HandlerMethod handlerMethod, BatchSubRequest subRequest) throws Exception {
+        InvocableHandlerMethod invocable = new InvocableHandlerMethod(handlerMethod);
+        invocable.setHandlerMethodArgumentResolvers(argumentResolvers);
+        invocable.setDataBinderFactory(new ServletRequestDataBinderFactory(null, bindingInitializer));
+        return invocable.invokeForRequest(new ServletWebRequest(subRequest), new ModelAndViewContainer());
+    }
+
+    private Mono<BatchItemResponseDto> toResponse(BatchItemRequestDto request, Object result) {
+        Mono<?> value;
+        if (result instanceof Flux) {
+            value = ((Flux<?>) result).collectList();
+        } else if (result instanceof Mono) {
+            value = (Mono<?>) result;
+        } else {
+            value = Mono.justOrEmpty(result);
+        }
+        return value.map(body -> {
+                    if (!(body instanceof ResponseEntity)) {
+                        return toResponse(request, HttpStatus.OK, body);
+                    }
+                    ResponseEntity<?> entity = (ResponseEntity<?>) body;
+                    HttpHeaders entityHeaders = entity.getHeaders();
+                    Object entityBody = entity.getBody();
+                    if (entityBody instanceof byte[]) {
+                        byte[] raw = (byte[]) entityBody;
+                        if (GzipBodies.isGzip(entityHeaders)) {
+                            raw = GzipBodies.decompress(raw);
+                            entityHeaders = GzipBodies.decompressedHeaders(entityHeaders);
+                        }
+                        entityBody = new RawValue(new String(raw, StandardCharsets.UTF_8));
+                    }
+                    Map<String, String> headers = entityHeaders.toSingleValueMap();
+                    return new BatchItemResponseDto(request.getId(), entity.getStatusCodeValue(),
+                            headers.isEmpty() ? null : headers, entityBody);
+                })
+                .defaultIfEmpty(toResponse(request, HttpStatus.OK, null));
+    }
+
+    private BatchItemResponseDto toResponse(BatchItemRequestDto request, HttpStatus status, Object body) {
+        return new BatchItemResponseDto(request.getId(), status.value(), null, body);
+    }
+
+    private BatchItemResponseDto toErrorResponse(BatchItemRequestDto request, Throwable error) {
+        Throwable e = Exceptions.unwrap(error);
+        Method handler = exceptionHandlers.resolveMethodByExceptionType(e.getClass());
+        try {
+            Object body = handler.invoke(errorHandler, e);
+            if (body instanceof ResponseEntity) {
+                ResponseEntity<?> entity = (ResponseEntity<?>) body;
+                Map<String, String> headers = entity.getHeaders().toSingleValueMap();
+                return new BatchItemResponseDto(request.getId(), entity.getStatusCodeValue(),
+                        headers.isEmpty() ? null : headers, readBody(entity.getBody()));
+            }
+            ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(handler, ResponseStatus.class);
+            return toResponse(request, status != null ? status.code() : HttpStatus.OK, body);
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private Object readBody(Object body) {
+        if (!(body instanceof String)) {
+            return body;
+        }
+        try {
+            return objectMapper.readTree((String) body);
+        } catch (JsonProcessingException e) {
+            return body;
+        }
+    }
+
+    private byte[] toBytes(BatchItemRequestDto request) throws JsonProcessingException {
+        return request.getBody() == null || request.getBody().isNull()
+                ? EMPTY_BODY : objectMapper.writeValueAsBytes(request.getBody());
+    }
+}
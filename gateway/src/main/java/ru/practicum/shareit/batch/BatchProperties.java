@@ -0,0 +1,13 @@
+package ru.practicum.shareit.batch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.batch")
+public class BatchProperties {
+    private int maxSize = 20;
+    private int maxConcurrency = 5;
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpMethod;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemRequestDto {
+    private String id;
+    @NotNull
+    private HttpMethod method;
+    @NotBlank
+    @Pattern(regexp = "/.*")
+    private String path;
+    private Map<String, String> headers;
+    private JsonNode body;
+}
@@ -2,61 +2,73 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.cache.ChangeType;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerLoadBalancer;
+import ru.practicum.shareit.client.ShareItServerTransport;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UpstreamGuards;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private final ResponseCache responseCache;
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ShareItServerTransport transport, ServerLoadBalancer loadBalancer,
+                         SingleFlight singleFlight, UpstreamGuards upstreamGuards, ResponseCache responseCache,
+                         @Value("${shareit-gateway.passthrough:false}") boolean passthrough) {
+        super(API_PREFIX, transport, loadBalancer, singleFlight, upstreamGuards.forRoute("bookings"), passthrough);
+        this.responseCache = responseCache;
     }
 
-    public BookingResponseDto add(Long userId, BookingRequestDto requestDto) {
+    public Mono<BookingResponseDto> add(Long userId, BookingRequestDto requestDto) {
         return post("", userId, requestDto, BookingResponseDto.class);
     }
 
-    public BookingResponseDto approve(Long userId, Long bookingId, boolean approved) {
+    public Mono<BookingResponseDto> approve(Long userId, Long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null, BookingResponseDto.class);
+        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null, BookingResponseDto.class)
+                .doOnNext(booking -> responseCache.onChange(ChangeType.ITEM, booking.getItem().getId()));
     }
 
-    public BookingResponseDto getBooking(Long userId, Long bookingId) {
+    public Mono<BookingResponseDto> getBooking(Long userId, Long bookingId) {
         return get("/" + bookingId, userId, BookingResponseDto.class);
     }
 
-    public List<BookingResponseDto> getAllUserBooking(Long userId, String state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<List<BookingResponseDto>>> getAllUserBooking(Long userId, String state, int from,
+                                                                            int size, String cursor,
+                                                                            String ifNoneMatch) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters, List.class);
+        ));
+        return getPage("?state={state}&from={from}&size={size}" + cursorQuery(parameters, cursor), userId,
+                parameters, ifNoneMatch);
     }
 
-    public List<BookingResponseDto> getAllOwnerBooking(Long ownerId, String state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<List<BookingResponseDto>>> getAllOwnerBooking(Long ownerId, String state, int from,
+                                                                             int size, String cursor,
+                                                                             String ifNoneMatch) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters, List.class);
+        ));
+        return getPage("/owner?state={state}&from={from}&size={size}" + cursorQuery(parameters, cursor), ownerId,
+                parameters, ifNoneMatch);
     }
 }
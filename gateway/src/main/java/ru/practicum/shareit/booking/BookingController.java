@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
@@ -29,14 +31,14 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public BookingResponseDto add(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<BookingResponseDto> add(@RequestHeader("X-Sharer-User-Id") Long userId,
                                   @RequestBody @Valid BookingRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.add(userId, requestDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public BookingResponseDto approve(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<BookingResponseDto> approve(@RequestHeader("X-Sharer-User-Id") Long userId,
                                       @PathVariable Long bookingId,
                                       @RequestParam boolean approved) {
         log.info("Get booking with  userId={}, bookingId={}, approved={}", userId, bookingId, approved);
@@ -44,27 +46,31 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public BookingResponseDto getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<BookingResponseDto> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                          @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public List<BookingResponseDto> getAllUserBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<List<BookingResponseDto>>> getAllUserBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                       @RequestParam(name = "state", defaultValue = "ALL") String state,
                                                       @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-                                                      @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
-        log.info("Get booking with state {}, userId={}, from={}, size={}", state, userId, from, size);
-        return bookingClient.getAllUserBooking(userId, state, from, size);
+                                                      @Positive @RequestParam(name = "size", defaultValue = "10") int size,
+                                                      @RequestParam(name = "cursor", required = false) String cursor,
+                                                      @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", state, userId, from, size, cursor);
+        return bookingClient.getAllUserBooking(userId, state, from, size, cursor, ifNoneMatch);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getAllOwnerBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<List<BookingResponseDto>>> getAllOwnerBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                        @RequestParam(defaultValue = "ALL") String state,
                                                        @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                       @Positive @RequestParam(defaultValue = "10") int size) {
-        return bookingClient.getAllOwnerBooking(userId, state, from, size);
+                                                       @Positive @RequestParam(defaultValue = "10") int size,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        return bookingClient.getAllOwnerBooking(userId, state, from, size, cursor, ifNoneMatch);
     }
 }
 
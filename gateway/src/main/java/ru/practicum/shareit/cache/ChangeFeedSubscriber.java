@@ -0,0 +1,102 @@
+package ru.practicum.shareit.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+import ru.practicum.shareit.client.ServerLoadBalancer;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Component
+public class ChangeFeedSubscriber {
+    private static final ParameterizedTypeReference<ServerSentEvent<ChangeEvent>> EVENT_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient webClient;
+    private final List<String> serverUrls;
+    private final ResponseCache responseCache;
+    private final ResponseCacheProperties properties;
+    private final Set<String> connected = new HashSet<>();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    public ChangeFeedSubscriber(ServerLoadBalancer loadBalancer, WebClient.Builder builder,
+                                ResponseCache responseCache, ResponseCacheProperties properties) {
+        this.webClient = builder.build();
+        this.serverUrls = loadBalancer.getInstanceUrls();
+        this.responseCache = responseCache;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // запись может прийти на любой экземпляр, поэтому кэш работает, только пока подключены все ленты
+        for (String serverUrl : serverUrls) {
+            subscriptions.add(Flux.defer(() -> changes(serverUrl))
+                    .timeout(properties.getFeedTimeout())
+                    .doOnNext(event -> handle(serverUrl, event))
+                    .doOnError(e -> disconnect(serverUrl, e.getMessage()))
+                    .doOnComplete(() -> disconnect(serverUrl, "поток изменений завершён"))
+                    .repeatWhen(completed -> completed.delayElements(Duration.ofSeconds(1)))
+                    .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                            .maxBackoff(Duration.ofSeconds(30)))
+                    .subscribe());
+        }
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        subscriptions.dispose();
+    }
+
+    private Flux<ServerSentEvent<ChangeEvent>> changes(String serverUrl) {
+        return webClient.get()
+                .uri(serverUrl + "/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .bodyToFlux(EVENT_TYPE);
+    }
+
+    private void handle(String serverUrl, ServerSentEvent<ChangeEvent> event) {
+        if ("connected".equals(event.comment())) {
+            onConnected(serverUrl);
+        }
+        ChangeEvent change = event.data();
+        if (change != null) {
+            responseCache.onChange(change.getType(), change.getId());
+        }
+    }
+
+    private synchronized void onConnected(String serverUrl) {
+        connected.add(serverUrl);
+        if (connected.size() < serverUrls.size()) {
+            log.info("Подписка на изменения сервера {} установлена, ожидаются остальные экземпляры", serverUrl);
+            return;
+        }
+        log.info("Подписка на изменения сервера {} установлена, кэш ответов включён", serverUrl);
+        responseCache.setConnected(true);
+    }
+
+    private synchronized void disconnect(String serverUrl, String reason) {
+        connected.remove(serverUrl);
+        log.warn("Подписка на изменения сервера {} потеряна ({}), кэш ответов отключён", serverUrl, reason);
+        responseCache.setConnected(false);
+    }
+}
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache {
+    private final ResponseCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier ticker;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<String>> keysByTag = new HashMap<>();
+    private final Counter sizeEvictionCounter;
+    private final Counter expiredEvictionCounter;
+    private final Counter invalidationCounter;
+    private long generation;
+    private volatile boolean connected;
+
+    @Autowired
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry, LongSupplier ticker) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.ticker = ticker;
+        this.sizeEvictionCounter = Counter.builder("shareit.gateway.cache.evictions").tag("cause", "size")
+                .register(meterRegistry);
+        this.expiredEvictionCounter = Counter.builder("shareit.gateway.cache.evictions").tag("cause", "expired")
+                .register(meterRegistry);
+        this.invalidationCounter = Counter.builder("shareit.gateway.cache.evictions").tag("cause", "invalidated")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.cache.size", this, ResponseCache::size).register(meterRegistry);
+    }
+
+    public <T> Mono<T> get(String route, String key, Set<String> tags, Supplier<Mono<T>> call) {
+        return get(route, key, tags, call, value -> true);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> get(String route, String key, Set<String> tags, Supplier<Mono<T>> call,
+                           Predicate<? super T> cacheable) {
+        return Mono.defer(() -> {
+            if (!properties.isEnabled() || !connected) {
+                count(route, "bypass");
+                return call.get();
+            }
+            String cacheKey = route + " " + key;
+            long started;
+            synchronized (this) {
+                Entry entry = lookup(cacheKey);
+                if (entry != null) {
+                    count(route, "hit");
+                    return Mono.just((T) entry.value);
+                }
+                started = generation;
+            }
+            count(route, "miss");
+            return call.get().doOnNext(value -> {
+                if (cacheable.test(value)) {
+                    put(cacheKey, tags, value, route, started);
+                }
+            });
+        });
+    }
+
+    public void onChange(ChangeType type, Long id) {
+        switch (type) {
+            case USER:
+                invalidate(Set.of("user:" + id, "users"));
+                break;
+            case ITEM:
+                invalidate(Set.of("item:" + id));
+                break;
+            case REQUEST:
+                invalidate(Set.of("request:" + id, "requests"));
+                break;
+        }
+    }
+
+    public void setConnected(boolean connected) {
+        clear();
+        this.connected = connected;
+    }
+
+    private synchronized Entry lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt - ticker.getAsLong() <= 0) {
+            removeEntry(key);
+            expiredEvictionCounter.increment();
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void put(String key, Set<String> tags, Object value, String route, long started) {
+        if (started != generation || !connected) {
+            return;
+        }
+        long now = ticker.getAsLong();
+        removeEntry(key);
+        entries.put(key, new Entry(value, tags, now + properties.getTtl(route).toNanos()));
+        tags.forEach(tag -> keysByTag.computeIfAbsent(tag, t -> new HashSet<>()).add(key));
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > properties.getMaxSize() && iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            iterator.remove();
+            untag(eldest.getKey(), eldest.getValue());
+            if (eldest.getValue().expiresAt - now <= 0) {
+                expiredEvictionCounter.increment();
+            } else {
+                sizeEvictionCounter.increment();
+            }
+        }
+    }
+
+    private synchronized void invalidate(Set<String> tags) {
+        generation++;
+        for (String tag : tags) {
+            Set<String> keys = keysByTag.remove(tag);
+            if (keys != null) {
+                keys.forEach(key -> {
+                    if (removeEntry(key)) {
+                        invalidationCounter.increment();
+                    }
+                });
+            }
+        }
+        log.debug("Кэш ответов сброшен по тегам {}", tags);
+    }
+
+    private synchronized void clear() {
+        generation++;
+        entries.clear();
+        keysByTag.clear();
+    }
+
+    private boolean removeEntry(String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        untag(key, entry);
+        return true;
+    }
+
+    private void untag(String key, Entry entry) {
+        for (String tag : entry.tags) {
+            Set<String> keys = keysByTag.get(tag);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByTag.remove(tag);
+                }
+            }
+        }
+    }
+
+    private void count(String route, String result) {
+        meterRegistry.counter("shareit.gateway.cache.requests", "route", route, "result", result).increment();
+    }
+
+    private synchronized double size() {
+        return entries.size();
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final Set<String> tags;
+        private final long expiresAt;
+
+        Entry(Object value, Set<String> tags, long expiresAt) {
+            this.value = value;
+            this.tags = tags;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    private int maxSize = 10_000;
+    private Map<String, Duration> ttl = new HashMap<>();
+    private Duration defaultTtl = Duration.ofSeconds(30);
+    private Duration feedTimeout = Duration.ofSeconds(45);
+
+    public Duration getTtl(String route) {
+        return ttl.getOrDefault(route, defaultTtl);
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Лимит растёт, пока время ответа близко к минимальному, и уменьшается, когда запросы встают в очередь на сервере
+ * или сервер отвечает ошибкой. Минимальное время ответа переизмеряется раз в probe-interval запросов.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class AdaptiveConcurrencyLimiter {
+    private final ConcurrencyLimitProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejectedCounter;
+    private final LongSupplier ticker;
+    private volatile double limit;
+    private double shortRtt;
+    private double noLoadRtt;
+    private long samples;
+
+    @Autowired
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry,
+                               LongSupplier ticker) {
+        this.properties = properties;
+        this.ticker = ticker;
+        this.limit = properties.getInitialLimit();
+        this.rejectedCounter = Counter.builder("shareit.gateway.concurrency.rejected").register(meterRegistry);
+        Gauge.builder("shareit.gateway.concurrency.limit", this, limiter -> limiter.limit)
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.concurrency.in.flight", inFlight, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.concurrency.rtt", this, AdaptiveConcurrencyLimiter::getShortRttMillis)
+                .tag("window", "short").baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("shareit.gateway.concurrency.rtt", this, AdaptiveConcurrencyLimiter::getNoLoadRttMillis)
+                .tag("window", "no-load").baseUnit("milliseconds").register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        if (!properties.isEnabled()) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                rejectedCounter.increment();
+                return Mono.error(new ServiceUnavailableException("Сервер перегружен, повторите запрос позже"));
+            }
+            long started = ticker.getAsLong();
+            AtomicBoolean released = new AtomicBoolean();
+            return Mono.defer(call)
+                    .doOnSuccess(value -> release(released, started, Outcome.SAMPLE))
+                    .doOnError(e -> release(released, started, outcome(e)))
+                    .doFinally(signal -> release(released, started, Outcome.IGNORE));
+        });
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release(AtomicBoolean released, long started, Outcome outcome) {
+        if (!released.compareAndSet(false, true)) {
+            return;
+        }
+        int current = inFlight.getAndDecrement();
+        if (outcome == Outcome.SAMPLE) {
+            onSample(ticker.getAsLong() - started, current);
+        } else if (outcome == Outcome.DROP) {
+            onDrop();
+        }
+    }
+
+    private synchronized void onSample(long rttNanos, int concurrent) {
+        long window = Math.min(++samples, properties.getShortWindow());
+        shortRtt += (rttNanos - shortRtt) / window;
+        if (noLoadRtt == 0 || shortRtt < noLoadRtt || samples % properties.getProbeInterval() == 0) {
+            noLoadRtt = shortRtt;
+        }
+        if (concurrent < limit / 2) {
+            return;
+        }
+        double gradient = shortRtt == 0
+                ? 1.0 : Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * noLoadRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        setLimit(limit * (1 - properties.getSmoothing()) + newLimit * properties.getSmoothing());
+    }
+
+    private synchronized void onDrop() {
+        setLimit(limit * properties.getBackoffRatio());
+    }
+
+    private void setLimit(double newLimit) {
+        double clamped = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), newLimit));
+        if ((int) clamped != (int) limit) {
+            log.debug("Предел одновременных запросов к серверу: {} -> {}", (int) limit, (int) clamped);
+        }
+        limit = clamped;
+    }
+
+    private synchronized double getShortRttMillis() {
+        return shortRtt / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private synchronized double getNoLoadRttMillis() {
+        return noLoadRtt / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static Outcome outcome(Throwable e) {
+        if (e instanceof ServiceUnavailableException) {
+            return Outcome.IGNORE;
+        }
+        if (e instanceof HttpStatusCodeException
+                && !((HttpStatusCodeException) e).getStatusCode().is5xxServerError()) {
+            return Outcome.SAMPLE;
+        }
+        return Outcome.DROP;
+    }
+
+    private enum Outcome {
+        SAMPLE,
+        DROP,
+        IGNORE
+    }
+}
@@ -1,90 +1,202 @@
 package ru.practicum.shareit.client;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
 
 public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
-    }
-
-    protected <E> E get(String path, Class<E> type) {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final DefaultUriBuilderFactory URI_FACTORY = new DefaultUriBuilderFactory();
+    private static final Set<String> HOP_BY_HOP_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        HOP_BY_HOP_HEADERS.addAll(List.of(HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.TRANSFER_ENCODING,
+                HttpHeaders.TE, HttpHeaders.TRAILER, HttpHeaders.UPGRADE, HttpHeaders.PROXY_AUTHENTICATE,
+                HttpHeaders.PROXY_AUTHORIZATION, HttpHeaders.CONTENT_LENGTH));
+    }
+
+    protected final String apiPrefix;
+    protected final ShareItServerTransport transport;
+    protected final ServerLoadBalancer loadBalancer;
+    protected final SingleFlight singleFlight;
+    protected final UpstreamGuard upstreamGuard;
+    protected final boolean passthrough;
+
+    public BaseClient(String apiPrefix, ShareItServerTransport transport, ServerLoadBalancer loadBalancer,
+                      SingleFlight singleFlight, UpstreamGuard upstreamGuard, boolean passthrough) {
+        this.apiPrefix = apiPrefix;
+        this.transport = transport;
+        this.loadBalancer = loadBalancer;
+        this.singleFlight = singleFlight;
+        this.upstreamGuard = upstreamGuard;
+        this.passthrough = passthrough;
+    }
+
+    protected <E> Mono<E> get(String path, Class<E> type) {
         return get(path, null, null, type);
     }
 
-    protected <E> E get(String path, long userId, Class<E> type) {
+    protected <E> Mono<E> get(String path, long userId, Class<E> type) {
         return get(path, userId, null, type);
     }
 
-    protected <E> E get(String path, Long userId, @Nullable Map<String, Object> parameters,
-                        Class<E> type) {
+    protected <E> Mono<E> get(String path, Long userId, @Nullable Map<String, Object> parameters,
+                              Class<E> type) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, type);
     }
 
-    protected <T, E> E post(String path, T body, Class<E> type) {
+    protected <E> Flux<E> getAll(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                 Class<E[]> type) {
+        return get(path, userId, parameters, type).flatMapMany(Flux::fromArray);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <E> Mono<ResponseEntity<E>> getEntity(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                    @Nullable String ifNoneMatch, Class<E> type) {
+        if (passthrough) {
+            // JSON сервера передаётся как есть, тело byte[] пишет ByteArrayHttpMessageConverter
+            return exchange(HttpMethod.GET, path, userId, parameters, null, ifNoneMatch, byte[].class)
+                    .map(shareitServerResponse -> (ResponseEntity<E>) passthroughEntity(shareitServerResponse));
+        }
+        return exchange(HttpMethod.GET, path, userId, parameters, null, ifNoneMatch, type)
+                .map(shareitServerResponse -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    String nextCursor = shareitServerResponse.getHeaders().getFirst(NEXT_CURSOR_HEADER);
+                    if (nextCursor != null) {
+                        headers.set(NEXT_CURSOR_HEADER, nextCursor);
+                    }
+                    String eTag = shareitServerResponse.getHeaders().getETag();
+                    if (eTag != null) {
+                        headers.setETag(eTag);
+                    }
+                    return new ResponseEntity<>(shareitServerResponse.getBody(), headers,
+                            shareitServerResponse.getStatusCode());
+                });
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected <E> Mono<ResponseEntity<List<E>>> getPage(String path, Long userId,
+                                                        @Nullable Map<String, Object> parameters,
+                                                        @Nullable String ifNoneMatch) {
+        return (Mono) getEntity(path, userId, parameters, ifNoneMatch, List.class);
+    }
+
+    private static ResponseEntity<byte[]> passthroughEntity(ResponseEntity<byte[]> response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name)) {
+                headers.addAll(name, values);
+            }
+        });
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+
+    protected static <E> ResponseEntity<E> notModifiedIfMatches(ResponseEntity<E> response,
+                                                               @Nullable String ifNoneMatch) {
+        String eTag = response.getHeaders().getETag();
+        if (ifNoneMatch == null || eTag == null || !response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        String opaqueTag = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaqueTag)) {
+                return new ResponseEntity<>(response.getHeaders(), HttpStatus.NOT_MODIFIED);
+            }
+        }
+        return response;
+    }
+
+    protected static boolean isCacheable(ResponseEntity<?> response) {
+        return response.getStatusCode() == HttpStatus.OK;
+    }
+
+    protected static String cursorQuery(Map<String, Object> parameters, @Nullable String cursor) {
+        if (cursor == null) {
+            return "";
+        }
+        parameters.put("cursor", cursor);
+        return "&cursor={cursor}";
+    }
+
+    protected <T, E> Mono<E> post(String path, T body, Class<E> type) {
         return post(path, null, null, body, type);
     }
 
-    protected <T, E> E post(String path, long userId, T body, Class<E> type) {
+    protected <T, E> Mono<E> post(String path, long userId, T body, Class<E> type) {
         return post(path, userId, null, body, type);
     }
 
-    protected <T, E> E post(String path, Long userId, @Nullable Map<String, Object> parameters, T body,
-                            Class<E> type) {
+    protected <T, E> Mono<E> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body,
+                                  Class<E> type) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, type);
     }
 
-    protected <T, E> E patch(String path, T body, Class<E> type) {
+    protected <T, E> Mono<E> patch(String path, T body, Class<E> type) {
         return patch(path, null, null, body, type);
     }
 
-    protected <E> E patch(String path, long userId, Class<E> type) {
+    protected <E> Mono<E> patch(String path, long userId, Class<E> type) {
         return patch(path, userId, null, null, type);
     }
 
-    protected <T, E> E patch(String path, long userId, T body, Class<E> type) {
+    protected <T, E> Mono<E> patch(String path, long userId, T body, Class<E> type) {
         return patch(path, userId, null, body, type);
     }
 
-    protected <T, E> E patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body,
-                             Class<E> type) {
+    protected <T, E> Mono<E> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body,
+                                   Class<E> type) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, type);
     }
 
-    protected void delete(String path) {
-        delete(path, null, null);
+    protected Mono<Void> delete(String path) {
+        return delete(path, null, null);
     }
 
-    protected void delete(String path, long userId) {
-        delete(path, userId, null);
+    protected Mono<Void> delete(String path, long userId) {
+        return delete(path, userId, null);
     }
 
-    protected void delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, Void.class);
+    protected Mono<Void> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, Void.class).then();
     }
 
-    private <T, E> E makeAndSendRequest(HttpMethod method, String path, Long userId,
-                                        @Nullable Map<String, Object> parameters, @Nullable T body, Class<E> type) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<E> shareitServerResponse;
+    private <T, E> Mono<E> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                              @Nullable Map<String, Object> parameters, @Nullable T body,
+                                              Class<E> type) {
+        return exchange(method, path, userId, parameters, body, null, type)
+                .flatMap(response -> Mono.justOrEmpty(response.getBody()));
+    }
 
-        if (parameters != null) {
-            shareitServerResponse = rest.exchange(path, method, requestEntity, type, parameters);
-        } else {
-            shareitServerResponse = rest.exchange(path, method, requestEntity, type);
+    private <T, E> Mono<ResponseEntity<E>> exchange(HttpMethod method, String path, Long userId,
+                                                    @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                    @Nullable String ifNoneMatch, Class<E> type) {
+        Map<String, Object> uriVariables = parameters == null ? Map.of() : parameters;
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        Supplier<Mono<ResponseEntity<E>>> call = () -> upstreamGuard.execute(() -> loadBalancer.execute(method,
+                serverUrl -> transport.exchange(method, serverUrl + apiPrefix + path, uriVariables, headers, body,
+                        type)));
+        if (method != HttpMethod.GET) {
+            return call.get();
         }
-        return shareitServerResponse.getBody();
+        String key = method + " " + URI_FACTORY.expand(apiPrefix + path, uriVariables) + " " + userId + " "
+                + ifNoneMatch + " " + type.getName();
+        return singleFlight.execute(key, call);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
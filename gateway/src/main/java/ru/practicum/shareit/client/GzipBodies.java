@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+
+public final class GzipBodies {
+    public static final String GZIP = "gzip";
+
+    private GzipBodies() {
+    }
+
+    public static boolean isGzip(HttpHeaders headers) {
+        String encoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        return encoding != null && GZIP.equalsIgnoreCase(encoding.trim());
+    }
+
+    public static byte[] decompress(byte[] body) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return StreamUtils.copyToByteArray(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось распаковать ответ сервера", e);
+        }
+    }
+
+    public static HttpHeaders decompressedHeaders(HttpHeaders headers) {
+        HttpHeaders decompressed = new HttpHeaders();
+        decompressed.putAll(headers);
+        decompressed.remove(HttpHeaders.CONTENT_ENCODING);
+        decompressed.remove(HttpHeaders.CONTENT_LENGTH);
+        return decompressed;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.load-balancer")
+public class LoadBalancerProperties {
+    private List<String> instances = new ArrayList<>();
+    private Strategy strategy = Strategy.LEAST_OUTSTANDING;
+    private int maxRetries = 1;
+    private HealthCheck healthCheck = new HealthCheck();
+
+    public enum Strategy {
+        LEAST_OUTSTANDING,
+        POWER_OF_TWO_CHOICES
+    }
+
+    @Getter
+    @Setter
+    public static class HealthCheck {
+        private boolean enabled = true;
+        private String path = "/actuator/health";
+        private Duration interval = Duration.ofSeconds(5);
+        private Duration timeout = Duration.ofSeconds(2);
+        private int unhealthyThreshold = 2;
+        private int healthyThreshold = 2;
+    }
+}
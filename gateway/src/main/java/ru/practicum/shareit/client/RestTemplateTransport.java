@@ -0,0 +1,45 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "shareit-gateway.client-mode", havingValue = "blocking", matchIfMissing = true)
+public class RestTemplateTransport implements ShareItServerTransport {
+    private final RestTemplate rest;
+    private final WireFormatNegotiator wireFormat;
+
+    public RestTemplateTransport(RestTemplateBuilder builder, ClientHttpRequestFactory requestFactory,
+                                 HttpClientProperties properties, WireFormatNegotiator wireFormat) {
+        if (properties.getProtocol() == HttpClientProperties.Protocol.H2C) {
+            throw new IllegalStateException("Протокол h2c поддерживается только в режиме "
+                    + "shareit-gateway.client-mode=reactive");
+        }
+        this.wireFormat = wireFormat;
+        this.rest = builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory())
+                .requestFactory(() -> requestFactory)
+                .build();
+    }
+
+    @Override
+    public <T, E> Mono<ResponseEntity<E>> exchange(HttpMethod method, String uriTemplate,
+                                                   Map<String, Object> uriVariables, HttpHeaders headers,
+                                                   @Nullable T body, Class<E> type) {
+        HttpEntity<T> entity = new HttpEntity<>(body, wireFormat.negotiate(headers, type));
+        return Mono.fromCallable(() -> rest.exchange(uriTemplate, method, entity, type, uriVariables))
+                .onErrorMap(wireFormat::toJsonError);
+    }
+}
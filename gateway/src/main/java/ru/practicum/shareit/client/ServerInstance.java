@@ -0,0 +1,76 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Slf4j
+public class ServerInstance {
+    private final String url;
+    private final LoadBalancerProperties.HealthCheck healthCheck;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private volatile boolean healthy = true;
+    private int consecutiveSuccesses;
+    private int consecutiveFailures;
+
+    ServerInstance(String url, LoadBalancerProperties.HealthCheck healthCheck, MeterRegistry meterRegistry) {
+        this.url = url;
+        this.healthCheck = healthCheck;
+        this.successTimer = Timer.builder("shareit.gateway.instance.latency").tag("instance", url)
+                .tag("outcome", "success").register(meterRegistry);
+        this.failureTimer = Timer.builder("shareit.gateway.instance.latency").tag("instance", url)
+                .tag("outcome", "failure").register(meterRegistry);
+        Gauge.builder("shareit.gateway.instance.outstanding", outstanding, AtomicInteger::get)
+                .tag("instance", url).register(meterRegistry);
+        Gauge.builder("shareit.gateway.instance.healthy", this, instance -> instance.isHealthy() ? 1 : 0)
+                .tag("instance", url).register(meterRegistry);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    int getOutstanding() {
+        return outstanding.get();
+    }
+
+    <E> Mono<E> execute(Function<String, Mono<E>> call) {
+        return Mono.defer(() -> {
+            outstanding.incrementAndGet();
+            long started = System.nanoTime();
+            return call.apply(url)
+                    .doOnSuccess(value -> successTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS))
+                    .doOnError(e -> (ServerLoadBalancer.isInstanceFailure(e) ? failureTimer : successTimer)
+                            .record(System.nanoTime() - started, TimeUnit.NANOSECONDS))
+                    .doFinally(signal -> outstanding.decrementAndGet());
+        });
+    }
+
+    synchronized void onHealthCheck(boolean up) {
+        if (up) {
+            consecutiveFailures = 0;
+            if (!healthy && ++consecutiveSuccesses >= healthCheck.getHealthyThreshold()) {
+                healthy = true;
+                log.info("Экземпляр сервера {} снова доступен и возвращён в балансировку", url);
+            }
+        } else {
+            consecutiveSuccesses = 0;
+            if (healthy && ++consecutiveFailures >= healthCheck.getUnhealthyThreshold()) {
+                healthy = false;
+                log.warn("Экземпляр сервера {} не прошёл проверку состояния и исключён из балансировки", url);
+            }
+        }
+    }
+}
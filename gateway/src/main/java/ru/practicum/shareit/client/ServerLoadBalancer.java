@@ -0,0 +1,167 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PreDestroy;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Балансировка между экземплярами сервера. Повторяются только GET и только на другом экземпляре.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(LoadBalancerProperties.class)
+public class ServerLoadBalancer {
+    private final LoadBalancerProperties properties;
+    private final List<ServerInstance> instances;
+    private final WebClient healthCheckClient;
+    private final Counter retryCounter;
+    private Disposable healthChecks;
+
+    public ServerLoadBalancer(LoadBalancerProperties properties, WebClient.Builder builder,
+                              MeterRegistry meterRegistry) {
+        if (properties.getInstances().isEmpty()) {
+            throw new IllegalStateException(
+                    "Не задан ни один экземпляр сервера в shareit-server.load-balancer.instances");
+        }
+        this.properties = properties;
+        this.instances = properties.getInstances().stream()
+                .map(url -> url.trim().replaceAll("/+$", ""))
+                .distinct()
+                .map(url -> new ServerInstance(url, properties.getHealthCheck(), meterRegistry))
+                .collect(Collectors.toList());
+        this.healthCheckClient = builder.clone().build();
+        this.retryCounter = Counter.builder("shareit.gateway.instance.retries").register(meterRegistry);
+        log.info("Экземпляры сервера: {}, стратегия балансировки {}", getInstanceUrls(), properties.getStrategy());
+        if (instances.size() > 1) {
+            log.warn("Несколько экземпляров сервера требуют SHAREIT_CLUSTER=true на каждом из них: "
+                    + "иначе поиск, блокировка бронирований и кэш пользователей расходятся между экземплярами");
+        }
+    }
+
+    public List<String> getInstanceUrls() {
+        return instances.stream().map(ServerInstance::getUrl).collect(Collectors.toList());
+    }
+
+    public <E> Mono<E> execute(HttpMethod method, Function<String, Mono<E>> call) {
+        if (instances.size() == 1) {
+            return instances.get(0).execute(call);
+        }
+        int attempts = method == HttpMethod.GET ? properties.getMaxRetries() + 1 : 1;
+        return Mono.defer(() -> attempt(call, new HashSet<>(), attempts));
+    }
+
+    private <E> Mono<E> attempt(Function<String, Mono<E>> call, Set<ServerInstance> tried, int attemptsLeft) {
+        ServerInstance instance = choose(tried);
+        tried.add(instance);
+        return instance.execute(call)
+                .onErrorResume(e -> {
+                    if (attemptsLeft <= 1 || !isInstanceFailure(e) || tried.size() == instances.size()) {
+                        return Mono.error(e);
+                    }
+                    retryCounter.increment();
+                    log.debug("Запрос к экземпляру {} завершился ошибкой ({}), повтор на другом экземпляре",
+                            instance.getUrl(), e.getMessage());
+                    return attempt(call, tried, attemptsLeft - 1);
+                });
+    }
+
+    private ServerInstance choose(Set<ServerInstance> tried) {
+        List<ServerInstance> candidates = instances.stream()
+                .filter(instance -> instance.isHealthy() && !tried.contains(instance))
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            candidates = instances.stream()
+                    .filter(instance -> !tried.contains(instance))
+                    .collect(Collectors.toList());
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        return properties.getStrategy() == LoadBalancerProperties.Strategy.POWER_OF_TWO_CHOICES
+                ? powerOfTwoChoices(candidates) : leastOutstanding(candidates);
+    }
+
+    private static ServerInstance leastOutstanding(List<ServerInstance> candidates) {
+        // при равенстве выигрывает случайный экземпляр
+        int offset = ThreadLocalRandom.current().nextInt(candidates.size());
+        ServerInstance best = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            ServerInstance candidate = candidates.get((offset + i) % candidates.size());
+            if (best == null || candidate.getOutstanding() < best.getOutstanding()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static ServerInstance powerOfTwoChoices(List<ServerInstance> candidates) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServerInstance a = candidates.get(first);
+        ServerInstance b = candidates.get(second);
+        return a.getOutstanding() <= b.getOutstanding() ? a : b;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startHealthChecks() {
+        LoadBalancerProperties.HealthCheck healthCheck = properties.getHealthCheck();
+        if (!healthCheck.isEnabled()) {
+            return;
+        }
+        healthChecks = Flux.interval(healthCheck.getInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> Flux.fromIterable(instances).flatMap(this::check))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stopHealthChecks() {
+        if (healthChecks != null) {
+            healthChecks.dispose();
+        }
+    }
+
+    private Mono<Void> check(ServerInstance instance) {
+        return healthCheckClient.get()
+                .uri(instance.getUrl() + properties.getHealthCheck().getPath())
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(properties.getHealthCheck().getTimeout())
+                .map(response -> true)
+                .onErrorReturn(false)
+                .doOnNext(instance::onHealthCheck)
+                .then();
+    }
+
+    static boolean isInstanceFailure(Throwable e) {
+        if (!(e instanceof HttpStatusCodeException)) {
+            return true;
+        }
+        HttpStatus status = ((HttpStatusCodeException) e).getStatusCode();
+        return status == HttpStatus.BAD_GATEWAY || status == HttpStatus.SERVICE_UNAVAILABLE
+                || status == HttpStatus.GATEWAY_TIMEOUT;
+    }
+}
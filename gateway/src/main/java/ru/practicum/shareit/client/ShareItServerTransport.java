@@ -0,0 +1,14 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public interface ShareItServerTransport {
+    <T, E> Mono<ResponseEntity<E>> exchange(HttpMethod method, String uriTemplate, Map<String, Object> uriVariables,
+                                            HttpHeaders headers, @Nullable T body, Class<E> type);
+}
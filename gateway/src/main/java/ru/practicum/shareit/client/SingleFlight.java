@@ -0,0 +1,63 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@Component
+public class SingleFlight {
+    private final ConcurrentMap<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Counter leaderCounter;
+    private final Counter coalescedCounter;
+
+    public SingleFlight(MeterRegistry meterRegistry,
+                        @Value("${shareit-gateway.coalescing.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        this.leaderCounter = Counter.builder("shareit.gateway.coalescing.requests").tag("result", "leader")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("shareit.gateway.coalescing.requests").tag("result", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.coalescing.in.flight", inFlight, ConcurrentMap::size)
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.coalescing.ratio", this, SingleFlight::coalescingRatio)
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String key, Supplier<Mono<T>> call) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> {
+            AtomicReference<Mono<?>> created = new AtomicReference<>();
+            Mono<?> shared = inFlight.computeIfAbsent(key, k -> {
+                created.set(share(k, call));
+                return created.get();
+            });
+            (shared == created.get() ? leaderCounter : coalescedCounter).increment();
+            return (Mono<T>) shared;
+        });
+    }
+
+    private <T> Mono<T> share(String key, Supplier<Mono<T>> call) {
+        AtomicReference<Mono<T>> self = new AtomicReference<>();
+        self.set(Mono.defer(call)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .share());
+        return self.get();
+    }
+
+    private double coalescingRatio() {
+        double total = leaderCounter.count() + coalescedCounter.count();
+        return total == 0 ? 0 : coalescedCounter.count() / total;
+    }
+}
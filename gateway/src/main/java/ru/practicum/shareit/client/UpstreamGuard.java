@@ -0,0 +1,196 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpStatusCodeException;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+@Slf4j
+public class UpstreamGuard {
+    private final String route;
+    private final boolean enabled;
+    private final UpstreamGuardProperties.Route settings;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Semaphore bulkhead;
+    private final boolean[] window;
+    private final Counter circuitRejectedCounter;
+    private final Counter bulkheadRejectedCounter;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final LongSupplier ticker;
+    private State state = State.CLOSED;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    UpstreamGuard(String route, boolean enabled, UpstreamGuardProperties.Route settings,
+                  AdaptiveConcurrencyLimiter concurrencyLimiter, MeterRegistry meterRegistry) {
+        this(route, enabled, settings, concurrencyLimiter, meterRegistry, System::nanoTime);
+    }
+
+    UpstreamGuard(String route, boolean enabled, UpstreamGuardProperties.Route settings,
+                  AdaptiveConcurrencyLimiter concurrencyLimiter, MeterRegistry meterRegistry, LongSupplier ticker) {
+        this.route = route;
+        this.enabled = enabled;
+        this.settings = settings;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.ticker = ticker;
+        this.bulkhead = new Semaphore(settings.getMaxConcurrent());
+        this.window = new boolean[settings.getSlidingWindowSize()];
+        this.circuitRejectedCounter = Counter.builder("shareit.gateway.upstream.rejected").tag("route", route)
+                .tag("reason", "circuit_open").register(meterRegistry);
+        this.bulkheadRejectedCounter = Counter.builder("shareit.gateway.upstream.rejected").tag("route", route)
+                .tag("reason", "bulkhead_full").register(meterRegistry);
+        this.successTimer = Timer.builder("shareit.gateway.upstream.latency").tag("route", route)
+                .tag("outcome", "success").register(meterRegistry);
+        this.failureTimer = Timer.builder("shareit.gateway.upstream.latency").tag("route", route)
+                .tag("outcome", "failure").register(meterRegistry);
+        Gauge.builder("shareit.gateway.upstream.state", this, guard -> guard.getState().ordinal())
+                .tag("route", route).description("0 - closed, 1 - half-open, 2 - open").register(meterRegistry);
+        Gauge.builder("shareit.gateway.upstream.in.flight", bulkhead,
+                        permits -> settings.getMaxConcurrent() - permits.availablePermits())
+                .tag("route", route).register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return concurrencyLimiter.execute(enabled ? () -> guard(call) : call);
+    }
+
+    private <T> Mono<T> guard(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquirePermission(ticker.getAsLong())) {
+                circuitRejectedCounter.increment();
+                return Mono.error(new ServiceUnavailableException("Сервис " + route
+                        + " временно недоступен, повторите запрос позже"));
+            }
+            if (!bulkhead.tryAcquire()) {
+                releasePermission();
+                bulkheadRejectedCounter.increment();
+                log.warn("Запрос к {} отклонён: достигнут предел {} одновременных запросов", route,
+                        settings.getMaxConcurrent());
+                return Mono.error(new ServiceUnavailableException("Сервис " + route
+                        + " перегружен, повторите запрос позже"));
+            }
+            long started = ticker.getAsLong();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return Mono.defer(call)
+                    .doOnSuccess(value -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            onResult(started, false);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            onResult(started, isFailure(e));
+                        }
+                    })
+                    .doFinally(signal -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            releasePermission();
+                        }
+                        bulkhead.release();
+                    });
+        });
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private synchronized boolean tryAcquirePermission(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < settings.getOpenDuration().toNanos()) {
+                return false;
+            }
+            transition(State.HALF_OPEN);
+            halfOpenInFlight = 0;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= settings.getHalfOpenCalls()) {
+                return false;
+            }
+            halfOpenInFlight++;
+        }
+        return true;
+    }
+
+    private synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    private void onResult(long started, boolean failure) {
+        long now = ticker.getAsLong();
+        long duration = now - started;
+        boolean slow = duration >= settings.getSlowCallDuration().toNanos();
+        (failure ? failureTimer : successTimer).record(duration, TimeUnit.NANOSECONDS);
+        record(failure || slow, now);
+    }
+
+    private synchronized void record(boolean failure, long now) {
+        if (state == State.HALF_OPEN) {
+            if (failure) {
+                open(now);
+            } else if (++halfOpenSuccesses >= settings.getHalfOpenCalls()) {
+                transition(State.CLOSED);
+                windowIndex = 0;
+                windowCount = 0;
+                windowFailures = 0;
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        if (windowCount == window.length) {
+            windowFailures -= window[windowIndex] ? 1 : 0;
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        windowFailures += failure ? 1 : 0;
+        windowIndex = (windowIndex + 1) % window.length;
+        if (windowCount >= settings.getMinimumCalls()
+                && windowFailures >= settings.getFailureRateThreshold() * windowCount) {
+            open(now);
+        }
+    }
+
+    private void open(long now) {
+        openedAt = now;
+        transition(State.OPEN);
+    }
+
+    private void transition(State next) {
+        if (state != next) {
+            log.warn("Автоматический выключатель {}: {} -> {}", route, state, next);
+            state = next;
+        }
+    }
+
+    private static boolean isFailure(Throwable e) {
+        return !(e instanceof HttpStatusCodeException)
+                || ((HttpStatusCodeException) e).getStatusCode().is5xxServerError();
+    }
+
+    enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+}
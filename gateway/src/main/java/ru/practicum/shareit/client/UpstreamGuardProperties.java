@@ -0,0 +1,34 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.upstream")
+public class UpstreamGuardProperties {
+    private boolean enabled = true;
+    private Route defaultRoute = new Route();
+    private Map<String, Route> routes = new HashMap<>();
+
+    public Route getRoute(String route) {
+        return routes.getOrDefault(route, defaultRoute);
+    }
+
+    @Getter
+    @Setter
+    public static class Route {
+        private int maxConcurrent = 50;
+        private int slidingWindowSize = 50;
+        private int minimumCalls = 20;
+        private double failureRateThreshold = 0.5;
+        private Duration slowCallDuration = Duration.ofSeconds(3);
+        private Duration openDuration = Duration.ofSeconds(10);
+        private int halfOpenCalls = 5;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@EnableConfigurationProperties(UpstreamGuardProperties.class)
+public class UpstreamGuards {
+    private final UpstreamGuardProperties properties;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, UpstreamGuard> guards = new ConcurrentHashMap<>();
+
+    public UpstreamGuards(UpstreamGuardProperties properties, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public UpstreamGuard forRoute(String route) {
+        return guards.computeIfAbsent(route, name -> new UpstreamGuard(name, properties.isEnabled(),
+                properties.getRoute(name), concurrencyLimiter, meterRegistry));
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "shareit-gateway.client-mode", havingValue = "reactive")
+public class WebClientTransport implements ShareItServerTransport, DisposableBean {
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+    private final WebClient rawWebClient;
+    private final WireFormatNegotiator wireFormat;
+
+    public WebClientTransport(WebClient.Builder builder, HttpClientProperties properties,
+                              WireFormatNegotiator wireFormat) {
+        boolean h2c = properties.getProtocol() == HttpClientProperties.Protocol.H2C;
+        this.connectionProvider = ConnectionProvider.builder("shareit-server")
+                .maxConnections(h2c ? properties.getMaxHttp2Connections() : properties.getMaxPerRoute())
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getIdleEviction())
+                .maxLifeTime(properties.getKeepAlive())
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout())
+                .protocol(h2c ? HttpProtocol.H2C : HttpProtocol.HTTP11)
+                .keepAlive(true);
+        this.webClient = builder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient.compress(properties.isCompression())))
+                .build();
+        // сырые ответы сервера передаются как есть, без распаковки
+        this.rawWebClient = builder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public <T, E> Mono<ResponseEntity<E>> exchange(HttpMethod method, String uriTemplate,
+                                                   Map<String, Object> uriVariables, HttpHeaders headers,
+                                                   @Nullable T body, Class<E> type) {
+        WebClient client = byte[].class.equals(type) ? rawWebClient : webClient;
+        WebClient.RequestBodySpec request = client.method(method)
+                .uri(uriTemplate, uriVariables)
+                .headers(requestHeaders -> requestHeaders.addAll(wireFormat.negotiate(headers, type)));
+        WebClient.RequestHeadersSpec<?> spec = body == null ? request : request.bodyValue(body);
+        return spec.exchangeToMono(response -> response.statusCode().isError()
+                ? toException(response).flatMap(Mono::error)
+                : response.toEntity(type))
+                .onErrorMap(wireFormat::toJsonError);
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+    }
+
+    private static Mono<HttpStatusCodeException> toException(ClientResponse response) {
+        HttpStatus status = response.statusCode();
+        return response.bodyToMono(byte[].class)
+                .defaultIfEmpty(new byte[0])
+                .map(body -> status.is4xxClientError()
+                        ? HttpClientErrorException.create(status, status.getReasonPhrase(),
+                        response.headers().asHttpHeaders(), body, StandardCharsets.UTF_8)
+                        : HttpServerErrorException.create(status, status.getReasonPhrase(),
+                        response.headers().asHttpHeaders(), body, StandardCharsets.UTF_8));
+    }
+}
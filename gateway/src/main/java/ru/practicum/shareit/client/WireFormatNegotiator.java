@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@Component
+public class WireFormatNegotiator {
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final boolean smile;
+    private final boolean compression;
+    private final ObjectMapper smileMapper;
+    private final ObjectMapper jsonMapper;
+
+    public WireFormatNegotiator(HttpClientProperties properties,
+                                MappingJackson2SmileHttpMessageConverter smileConverter, ObjectMapper jsonMapper) {
+        this.smile = properties.getWireFormat() == HttpClientProperties.WireFormat.SMILE;
+        this.compression = properties.isCompression();
+        this.smileMapper = smileConverter.getObjectMapper();
+        this.jsonMapper = jsonMapper;
+    }
+
+    public HttpHeaders negotiate(HttpHeaders headers, Class<?> type) {
+        boolean raw = byte[].class.equals(type);
+        // сырые ответы уходят клиентам как есть: JSON, по возможности сжатый gzip
+        if (raw ? !compression : !smile) {
+            return headers;
+        }
+        HttpHeaders negotiated = new HttpHeaders();
+        negotiated.putAll(headers);
+        if (raw) {
+            negotiated.set(HttpHeaders.ACCEPT_ENCODING, GzipBodies.GZIP);
+        } else {
+            negotiated.setAccept(List.of(APPLICATION_SMILE, MediaType.APPLICATION_JSON));
+            negotiated.setContentType(APPLICATION_SMILE);
+        }
+        return negotiated;
+    }
+
+    public Throwable toJsonError(Throwable e) {
+        if (!(e instanceof HttpStatusCodeException)) {
+            return e;
+        }
+        HttpStatusCodeException exception = (HttpStatusCodeException) e;
+        HttpHeaders headers = exception.getResponseHeaders();
+        if (headers == null) {
+            return e;
+        }
+        boolean gzip = GzipBodies.isGzip(headers);
+        boolean smileBody = APPLICATION_SMILE.isCompatibleWith(headers.getContentType());
+        if (!gzip && !smileBody) {
+            return e;
+        }
+        try {
+            byte[] body = gzip ? GzipBodies.decompress(exception.getResponseBodyAsByteArray())
+                    : exception.getResponseBodyAsByteArray();
+            HttpHeaders jsonHeaders = GzipBodies.decompressedHeaders(headers);
+            if (smileBody) {
+                body = jsonMapper.writeValueAsBytes(smileMapper.readTree(body));
+                jsonHeaders.setContentType(MediaType.APPLICATION_JSON);
+            }
+            return exception.getStatusCode().is4xxClientError()
+                    ? HttpClientErrorException.create(exception.getStatusCode(), exception.getStatusText(), jsonHeaders,
+                    body, StandardCharsets.UTF_8)
+                    : HttpServerErrorException.create(exception.getStatusCode(), exception.getStatusText(), jsonHeaders,
+                    body, StandardCharsets.UTF_8);
+        } catch (IOException | UncheckedIOException ex) {
+            return e;
+        }
+    }
+}
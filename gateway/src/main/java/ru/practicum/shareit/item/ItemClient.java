@@ -2,64 +2,85 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.cache.ChangeType;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerLoadBalancer;
+import ru.practicum.shareit.client.ShareItServerTransport;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UpstreamGuards;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
+    private final ResponseCache responseCache;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ShareItServerTransport transport, ServerLoadBalancer loadBalancer,
+                      SingleFlight singleFlight, UpstreamGuards upstreamGuards, ResponseCache responseCache,
+                      @Value("${shareit-gateway.passthrough:false}") boolean passthrough) {
+        super(API_PREFIX, transport, loadBalancer, singleFlight, upstreamGuards.forRoute("items"), passthrough);
+        this.responseCache = responseCache;
     }
 
-    public ItemDto add(Long userId, ItemDto itemDto) {
-        return post("", userId, itemDto, ItemDto.class);
+    public Mono<ItemDto> add(Long userId, ItemDto itemDto) {
+        return post("", userId, itemDto, ItemDto.class)
+                .doOnNext(this::onItemChange);
     }
 
-    public ItemDto update(Long userId, Long id, ItemDto itemDto) {
-        return patch("/" + id, userId, itemDto, ItemDto.class);
+    public Mono<ItemDto> update(Long userId, Long id, ItemDto itemDto) {
+        return patch("/" + id, userId, itemDto, ItemDto.class)
+                .doOnNext(this::onItemChange);
     }
 
-    public ItemWithBookingDto findById(Long userId, Long id) {
-        return get("/" + id, userId, ItemWithBookingDto.class);
+    public Mono<ResponseEntity<ItemWithBookingDto>> findById(Long userId, Long id, String ifNoneMatch) {
+        return responseCache.get("items", "/" + id + " " + userId, Set.of("item:" + id),
+                        () -> getEntity("/" + id, userId, null, ifNoneMatch, ItemWithBookingDto.class),
+                        BaseClient::isCacheable)
+                .map(response -> notModifiedIfMatches(response, ifNoneMatch));
     }
 
-    public List<ItemWithBookingDto> findAllItems(Long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<List<ItemWithBookingDto>>> findAllItems(Long userId, int from, int size, String cursor,
+                                                                       String ifNoneMatch) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("?from={from}&size={size}", userId, parameters, List.class);
+        ));
+        return getPage("?from={from}&size={size}" + cursorQuery(parameters, cursor), userId, parameters,
+                ifNoneMatch);
     }
 
-    public List<ItemDto> searchItems(Long userId, String text, int from, int size) {
+    public Mono<ResponseEntity<List<ItemDto>>> searchItems(Long userId, String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters, List.class);
+        return getPage("/search?text={text}&from={from}&size={size}", userId, parameters, null);
+    }
+
+    public Mono<CommentResponseDto> addComment(long userId, CommentRequestDto commentDto, long itemId) {
+        return post("/" + itemId + "/comment", userId, commentDto, CommentResponseDto.class)
+                .doOnNext(comment -> responseCache.onChange(ChangeType.ITEM, itemId));
     }
 
-    public CommentResponseDto addComment(long userId, CommentRequestDto commentDto, long itemId) {
-        return post("/" + itemId + "/comment", userId, commentDto, CommentResponseDto.class);
+    private void onItemChange(ItemDto item) {
+        responseCache.onChange(ChangeType.ITEM, item.getId());
+        if (item.getRequestId() != null) {
+            responseCache.onChange(ChangeType.REQUEST, item.getRequestId());
+        }
     }
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -30,41 +32,44 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ItemDto add(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ItemDto> add(@RequestHeader("X-Sharer-User-Id") Long userId,
                        @NotNull @Valid @RequestBody ItemDto itemDto) {
         return itemClient.add(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ItemDto update(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ItemDto> update(@RequestHeader("X-Sharer-User-Id") Long userId,
                           @PathVariable Long itemId,
                           @NotNull @RequestBody ItemDto itemDto) {
         return itemClient.update(userId, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ItemWithBookingDto findById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                       @PathVariable Long itemId) {
-        return itemClient.findById(userId, itemId);
+    public Mono<ResponseEntity<ItemWithBookingDto>> findById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @PathVariable Long itemId,
+                                                             @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        return itemClient.findById(userId, itemId, ifNoneMatch);
     }
 
     @GetMapping
-    public List<ItemWithBookingDto> findAllItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<List<ItemWithBookingDto>>> findAllItems(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                  @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                 @Positive @RequestParam(defaultValue = "10") int size) {
-        return itemClient.findAllItems(userId, from, size);
+                                                 @Positive @RequestParam(defaultValue = "10") int size,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        return itemClient.findAllItems(userId, from, size, cursor, ifNoneMatch);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                     @RequestParam(defaultValue = "") String text,
-                                     @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                     @Positive @RequestParam(defaultValue = "10") int size) {
+    public Mono<ResponseEntity<List<ItemDto>>> searchItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @RequestParam(defaultValue = "") String text,
+                                                           @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                           @Positive @RequestParam(defaultValue = "10") int size) {
         return itemClient.searchItems(userId, text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public CommentResponseDto addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<CommentResponseDto> addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
                                          @PathVariable Long itemId,
                                          @NotNull @Valid @RequestBody CommentRequestDto commentDto) {
         return itemClient.addComment(userId, commentDto, itemId);
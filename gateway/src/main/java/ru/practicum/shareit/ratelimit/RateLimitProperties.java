@@ -0,0 +1,31 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int maxKeys = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Limit defaultLimit = new Limit();
+    private Map<String, Limit> limits = new HashMap<>();
+
+    public Limit getLimit(String controller) {
+        return limits.getOrDefault(controller, defaultLimit);
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int capacity = 100;
+        private double refillPerSecond = 50;
+    }
+}
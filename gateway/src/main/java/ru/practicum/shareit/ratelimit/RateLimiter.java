@@ -0,0 +1,152 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimiter implements HandlerInterceptor {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<Class<?>, String> controllers = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final AtomicLong lastSweep;
+    private final Counter evictionCounter;
+    private final LongSupplier ticker;
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier ticker) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.ticker = ticker;
+        this.lastSweep = new AtomicLong(ticker.getAsLong());
+        this.evictionCounter = Counter.builder("shareit.gateway.rate-limit.evictions").register(meterRegistry);
+        Gauge.builder("shareit.gateway.rate-limit.keys", buckets, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod && request.getDispatcherType() != DispatcherType.ASYNC) {
+            acquire(request, (HandlerMethod) handler);
+        }
+        return true;
+    }
+
+    public void acquire(HttpServletRequest request, HandlerMethod handler) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String controller = controllers.computeIfAbsent(handler.getBeanType(), RateLimiter::controllerName);
+        RateLimitProperties.Limit limit = properties.getLimit(controller);
+        String userId = request.getHeader(USER_ID_HEADER);
+        String key = (userId != null ? userId : request.getRemoteAddr()) + " " + request.getMethod() + " "
+                + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        long now = ticker.getAsLong();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(now));
+            evictIfNeeded(now);
+        }
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / limit.getRefillPerSecond());
+        long waitNanos = bucket.tryAcquire(now, intervalNanos, intervalNanos * limit.getCapacity());
+        if (waitNanos > 0) {
+            Counter.builder("shareit.gateway.rate-limit.rejected").tag("controller", controller)
+                    .register(meterRegistry).increment();
+            log.warn("Запрос {} {} пользователя {} отклонён: превышен лимит запросов", request.getMethod(),
+                    request.getRequestURI(), userId);
+            throw new TooManyRequestsException("Слишком много запросов, повторите попытку позже",
+                    Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+
+    private void evictIfNeeded(long now) {
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        boolean overflow = buckets.size() > properties.getMaxKeys();
+        if ((!overflow && now - lastSweep.get() < idleNanos) || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lastSweep.set(now);
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+            if (buckets.size() > properties.getMaxKeys()) {
+                buckets.values().removeIf(bucket -> bucket.isIdle(now, 0));
+            }
+            Iterator<Bucket> iterator = buckets.values().iterator();
+            while (buckets.size() > properties.getMaxKeys() && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+            evictionCounter.increment(before - buckets.size());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static String controllerName(Class<?> beanType) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(beanType, RequestMapping.class);
+        if (mapping == null || mapping.path().length == 0) {
+            return beanType.getSimpleName();
+        }
+        return mapping.path()[0].replaceAll("^/+|/.*$", "");
+    }
+
+    /**
+     * Ведро хранит момент, когда оно снова заполнится; каждый токен сдвигает его на интервал пополнения.
+     */
+    private static final class Bucket {
+        private final AtomicLong fullAt;
+
+        private Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+
+        private long tryAcquire(long now, long intervalNanos, long capacityNanos) {
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long waitNanos = next - now - capacityNanos;
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        private boolean isIdle(long now, long idleNanos) {
+            return now - fullAt.get() >= idleNanos;
+        }
+    }
+}
@@ -2,47 +2,63 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.cache.ChangeType;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerLoadBalancer;
+import ru.practicum.shareit.client.ShareItServerTransport;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UpstreamGuards;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
+    private final ResponseCache responseCache;
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(ShareItServerTransport transport, ServerLoadBalancer loadBalancer,
+                             SingleFlight singleFlight, UpstreamGuards upstreamGuards, ResponseCache responseCache,
+                             @Value("${shareit-gateway.passthrough:false}") boolean passthrough) {
+        super(API_PREFIX, transport, loadBalancer, singleFlight, upstreamGuards.forRoute("requests"), passthrough);
+        this.responseCache = responseCache;
     }
 
-    public ItemRequestDto add(Long userId, ItemRequestDto requestDto) {
-        return post("", userId, requestDto, ItemRequestDto.class);
+    public Mono<ItemRequestDto> add(Long userId, ItemRequestDto requestDto) {
+        return post("", userId, requestDto, ItemRequestDto.class)
+                .doOnNext(request -> responseCache.onChange(ChangeType.REQUEST, request.getId()));
     }
 
-    public List<ItemRequestDto> findAllByUserId(Long userId) {
-        return get("", userId, List.class);
+    public Mono<ResponseEntity<List<ItemRequestDto>>> findAllByUserId(Long userId, String ifNoneMatch) {
+        return responseCache.get("requests", " " + userId, Set.of("requests"),
+                        () -> this.<ItemRequestDto>getPage("", userId, null, ifNoneMatch), BaseClient::isCacheable)
+                .map(response -> notModifiedIfMatches(response, ifNoneMatch));
     }
 
-    public List<ItemRequestDto> findAll(Long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<List<ItemRequestDto>>> findAll(Long userId, int from, int size, String cursor,
+                                                              String ifNoneMatch) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("/all", userId, parameters, List.class);
+        ));
+        String path = "/all?from={from}&size={size}" + cursorQuery(parameters, cursor);
+        String key = "/all?from=" + from + "&size=" + size + "&cursor=" + cursor + " " + userId;
+        return responseCache.get("requests", key, Set.of("requests"),
+                        () -> this.<ItemRequestDto>getPage(path, userId, parameters, ifNoneMatch),
+                        BaseClient::isCacheable)
+                .map(response -> notModifiedIfMatches(response, ifNoneMatch));
     }
 
-    public ItemRequestDto findById(Long userId, Long id) {
-        return get("/" + id, userId, ItemRequestDto.class);
+    public Mono<ItemRequestDto> findById(Long userId, Long id) {
+        return responseCache.get("requests", "/" + id + " " + userId, Set.of("request:" + id),
+                () -> get("/" + id, userId, ItemRequestDto.class));
     }
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -26,25 +28,28 @@ public class ItemRequestController {
     private final ItemRequestClient requestClient;
 
     @PostMapping
-    public ItemRequestDto add(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ItemRequestDto> add(@RequestHeader("X-Sharer-User-Id") Long userId,
                               @NotNull @Valid @RequestBody ItemRequestDto requestDto) {
         return requestClient.add(userId, requestDto);
     }
 
     @GetMapping
-    public List<ItemRequestDto> findAllByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return requestClient.findAllByUserId(userId);
+    public Mono<ResponseEntity<List<ItemRequestDto>>> findAllByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                      @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        return requestClient.findAllByUserId(userId, ifNoneMatch);
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> findAll(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                        @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                        @Positive @RequestParam(defaultValue = "10") int size) {
-        return requestClient.findAll(userId, from, size);
+    public Mono<ResponseEntity<List<ItemRequestDto>>> findAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                        @Positive @RequestParam(defaultValue = "10") int size,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        return requestClient.findAll(userId, from, size, cursor, ifNoneMatch);
     }
 
     @GetMapping("/{id}")
-    public ItemRequestDto findById(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ItemRequestDto> findById(@RequestHeader("X-Sharer-User-Id") Long userId,
                                    @PathVariable Long id) {
         return requestClient.findById(userId, id);
     }
@@ -2,47 +2,56 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.cache.ChangeType;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerLoadBalancer;
+import ru.practicum.shareit.client.ShareItServerTransport;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UpstreamGuards;
 import ru.practicum.shareit.user.dto.UserDto;
 
-import java.util.List;
+import java.util.Set;
 
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
+    private final ResponseCache responseCache;
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(ShareItServerTransport transport, ServerLoadBalancer loadBalancer,
+                      SingleFlight singleFlight, UpstreamGuards upstreamGuards, ResponseCache responseCache,
+                      @Value("${shareit-gateway.passthrough:false}") boolean passthrough) {
+        super(API_PREFIX, transport, loadBalancer, singleFlight, upstreamGuards.forRoute("users"), passthrough);
+        this.responseCache = responseCache;
     }
 
-    public UserDto add(UserDto userDto) {
-        return post("", userDto, UserDto.class);
+    public Mono<UserDto> add(UserDto userDto) {
+        return post("", userDto, UserDto.class)
+                .doOnNext(user -> responseCache.onChange(ChangeType.USER, user.getId()));
     }
 
-    public UserDto update(Long id, UserDto userDto) {
-        return patch("/" + id, userDto, UserDto.class);
+    public Mono<UserDto> update(Long id, UserDto userDto) {
+        return patch("/" + id, userDto, UserDto.class)
+                .doOnNext(user -> responseCache.onChange(ChangeType.USER, id));
     }
 
-    public UserDto findById(Long id) {
-        return get("/" + id, UserDto.class);
+    public Mono<UserDto> findById(Long id) {
+        return responseCache.get("users", "/" + id, Set.of("user:" + id), () -> get("/" + id, UserDto.class));
     }
 
-    public List<UserDto> findAll() {
-        return get("", List.class);
+    public Flux<UserDto> findAll() {
+        return responseCache.get("users", "", Set.of("users"),
+                        () -> getAll("", null, null, UserDto[].class).collectList())
+                .flatMapIterable(users -> users);
     }
 
-    public void delete(Long id) {
-        delete("/" + id);
+    public Mono<Void> delete(Long id) {
+        return delete("/" + id)
+                .doOnSuccess(ignored -> responseCache.onChange(ChangeType.USER, id));
     }
 }
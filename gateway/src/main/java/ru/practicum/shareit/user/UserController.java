@@ -10,11 +10,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
-import java.util.List;
 
 @Validated
 @RestController
@@ -24,28 +25,28 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public UserDto add(@NotNull @Valid @RequestBody UserDto userDto) {
+    public Mono<UserDto> add(@NotNull @Valid @RequestBody UserDto userDto) {
         return userClient.add(userDto);
     }
 
     @PatchMapping("/{id}")
-    public UserDto update(@PathVariable Long id, @NotNull @RequestBody UserDto userDto) {
+    public Mono<UserDto> update(@PathVariable Long id, @NotNull @RequestBody UserDto userDto) {
         return userClient.update(id, userDto);
     }
 
     @GetMapping("/{id}")
-    public UserDto findById(@PathVariable Long id) {
+    public Mono<UserDto> findById(@PathVariable Long id) {
         return userClient.findById(id);
     }
 
     @GetMapping
-    public List<UserDto> findAll() {
+    public Flux<UserDto> findAll() {
         return userClient.findAll();
     }
 
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable Long id) {
-        userClient.delete(id);
+    public Mono<Void> delete(@PathVariable Long id) {
+        return userClient.delete(id);
     }
 
 
@@ -0,0 +1,126 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.client.GzipBodies;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmarkTest {
+    private static final int[] PAGE_SIZES = {20, 200};
+
+    @Param({"json", "smile"})
+    public String format;
+
+    @Param({"20", "200"})
+    public int size;
+
+    // Tomcat сжимает с уровнем по умолчанию
+    @Param({"1", "6"})
+    public int level;
+
+    private byte[] page;
+    private byte[] compressedPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        page = WireFormatBenchmarkTest.mapper(format).writeValueAsBytes(WireFormatBenchmarkTest.items(size));
+        compressedPage = gzip(page, level);
+    }
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        return gzip(page, level);
+    }
+
+    @Benchmark
+    public byte[] decompress() {
+        return GzipBodies.decompress(compressedPage);
+    }
+
+    @Test
+    void gzip_whenLargePagesCompressed_thenBandwidthDropsForModerateCpu() throws IOException, RunnerException {
+        for (String wireFormat : new String[]{"json", "smile"}) {
+            ObjectMapper mapper = WireFormatBenchmarkTest.mapper(wireFormat);
+            for (int pageSize : PAGE_SIZES) {
+                byte[] bookings = mapper.writeValueAsBytes(WireFormatBenchmarkTest.bookings(pageSize));
+                byte[] items = mapper.writeValueAsBytes(WireFormatBenchmarkTest.items(pageSize));
+                byte[] gzipBookings = gzip(bookings, Deflater.DEFAULT_COMPRESSION);
+                byte[] gzipItems = gzip(items, Deflater.DEFAULT_COMPRESSION);
+                log.info("format={} size={} bookings {}B -> {}B, items {}B -> {}B", wireFormat,
+                        pageSize, bookings.length, gzipBookings.length, items.length, gzipItems.length);
+
+                assertArrayEquals(items, GzipBodies.decompress(gzipItems));
+                assertTrue(gzipBookings.length < bookings.length);
+                assertTrue(gzipItems.length < items.length);
+            }
+        }
+
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(CompressionBenchmarkTest.class.getName() + "\\.(compress|decompress)")
+                .verbosity(VerboseMode.SILENT)
+                .build())
+                .run();
+        for (RunResult result : results) {
+            int pageBytes = WireFormatBenchmarkTest.mapper(result.getParams().getParam("format"))
+                    .writeValueAsBytes(WireFormatBenchmarkTest.items(Integer.parseInt(
+                            result.getParams().getParam("size")))).length;
+            double micros = result.getPrimaryResult().getScore();
+            log.info("{} format={} size={} level={}: {} us/op, {} MB/s",
+                    result.getParams().getBenchmark().replaceAll(".*\\.", ""),
+                    result.getParams().getParam("format"), result.getParams().getParam("size"),
+                    result.getParams().getParam("level"), String.format("%.2f", micros),
+                    Math.round(pageBytes / micros));
+        }
+    }
+
+    private static byte[] gzip(byte[] body, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new LeveledGzipOutputStream(out, level)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+        private LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.net.SocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@Tag("benchmark")
+class GatewayModeBenchmarkTest {
+    private static final int CONCURRENCY = 1_000;
+    private static final int ROUNDS = 5;
+    private static final long SERVER_DELAY_MS = 50;
+    private static final byte[] USER_JSON = "{\"id\":1,\"name\":\"user\",\"email\":\"user@email.ru\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final AtomicInteger upstreamCalls = new AtomicInteger();
+    private static final Set<SocketAddress> upstreamConnections = ConcurrentHashMap.newKeySet();
+    private static LoopResources stubLoops;
+    private static DisposableServer stubServer;
+
+    @BeforeAll
+    static void startStubServer() {
+        stubLoops = LoopResources.create("stub-server");
+        stubServer = HttpServer.create()
+                .runOn(stubLoops)
+                .host("localhost")
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .route(routes -> routes.get("/users/{id}", (request, response) -> {
+                    upstreamCalls.incrementAndGet();
+                    upstreamConnections.add(request.remoteAddress());
+                    return response
+                            .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                            .sendByteArray(Mono.delay(Duration.ofMillis(SERVER_DELAY_MS)).thenReturn(USER_JSON));
+                }))
+                .bindNow();
+    }
+
+    @AfterAll
+    static void stopStubServer() {
+        stubServer.disposeNow();
+        stubLoops.disposeLater().block();
+    }
+
+    @Test
+    void findById_whenThousandConcurrentConnections_thenReactiveModeOutperformsBlocking() {
+        double blocking = measure("client-mode=blocking", "--shareit-gateway.client-mode=blocking");
+        double reactive = measure("client-mode=reactive", "--shareit-gateway.client-mode=reactive");
+
+        assertTrue(reactive > blocking, "Reactive mode is not faster than blocking: " + reactive + " vs " + blocking);
+    }
+
+    @Test
+    void findById_whenIdenticalConcurrentRequests_thenUpstreamCallsCoalesced() {
+        int before = upstreamCalls.get();
+        measure("coalescing=off", "--shareit-gateway.coalescing.enabled=false");
+        int uncoalesced = upstreamCalls.get() - before;
+        before = upstreamCalls.get();
+        measure("coalescing=on", "--shareit-gateway.coalescing.enabled=true");
+        int coalesced = upstreamCalls.get() - before;
+        log.info("upstream calls: coalescing=off {}, coalescing=on {}", uncoalesced, coalesced);
+
+        assertTrue(coalesced * 2 < uncoalesced, "Requests are not coalesced: " + coalesced + " vs " + uncoalesced);
+    }
+
+    @Test
+    void findById_whenThousandConcurrentRequests_thenH2cMultiplexesOverFewConnections() {
+        upstreamConnections.clear();
+        double http1 = measure("protocol=http1", "--shareit-gateway.client-mode=reactive",
+                "--shareit-gateway.coalescing.enabled=false", "--shareit-server.http-client.protocol=http1");
+        int http1Connections = upstreamConnections.size();
+        upstreamConnections.clear();
+        double h2c = measure("protocol=h2c", "--shareit-gateway.client-mode=reactive",
+                "--shareit-gateway.coalescing.enabled=false", "--shareit-server.http-client.protocol=h2c");
+        int h2cConnections = upstreamConnections.size();
+        log.info("upstream connections: http1 {} ({} req/s), h2c {} ({} req/s)", http1Connections,
+                Math.round(http1), h2cConnections, Math.round(h2c));
+
+        assertTrue(h2cConnections * 10 < http1Connections, "Requests are not multiplexed: " + h2cConnections
+                + " vs " + http1Connections);
+    }
+
+    private static double measure(String label, String... args) {
+        try (ConfigurableApplicationContext context = startGateway(args)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            URI uri = URI.create("http://localhost:" + port + "/users/1");
+            fire(client, uri);
+
+            long[] latencies = new long[CONCURRENCY * ROUNDS];
+            long elapsed = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                long[] roundLatencies = fire(client, uri);
+                elapsed += System.nanoTime() - start;
+                System.arraycopy(roundLatencies, 0, latencies, round * CONCURRENCY, CONCURRENCY);
+            }
+            Arrays.sort(latencies);
+            double throughput = latencies.length / (elapsed / 1e9);
+            log.info("{} concurrency={} throughput={} req/s p50={}ms p99={}ms", label, CONCURRENCY,
+                    Math.round(throughput), latencies[latencies.length / 2] / 1_000_000,
+                    latencies[latencies.length * 99 / 100] / 1_000_000);
+            return throughput;
+        }
+    }
+
+    private static ConfigurableApplicationContext startGateway(String... args) {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0",
+                "--shareit-server.url=http://localhost:" + stubServer.port(),
+                "--shareit-server.http-client.max-total=" + CONCURRENCY,
+                "--shareit-server.http-client.max-per-route=" + CONCURRENCY,
+                "--shareit-server.http-client.connection-request-timeout=30s",
+                "--shareit-gateway.rate-limit.enabled=false",
+                "--shareit-gateway.upstream.enabled=false",
+                "--shareit-gateway.concurrency-limit.enabled=false",
+                "--shareit-server.load-balancer.health-check.enabled=false",
+                "--logging.level.org.springframework.web.client.RestTemplate=INFO"));
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(ShareItGateway.class).run(arguments.toArray(String[]::new));
+    }
+
+    private static long[] fire(HttpClient client, URI uri) {
+        List<CompletableFuture<Long>> requests = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            long start = System.nanoTime();
+            requests.add(client.sendAsync(HttpRequest.newBuilder(uri).GET().build(),
+                            HttpResponse.BodyHandlers.discarding())
+                    .thenApply(response -> {
+                        assertEquals(200, response.statusCode());
+                        return System.nanoTime() - start;
+                    }));
+        }
+        return requests.stream().mapToLong(CompletableFuture::join).toArray();
+    }
+}
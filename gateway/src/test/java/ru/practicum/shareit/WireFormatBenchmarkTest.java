@@ -0,0 +1,181 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingResponseShortDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmarkTest {
+    private static final TypeReference<List<BookingResponseDto>> BOOKINGS = new TypeReference<>() {
+    };
+    private static final TypeReference<List<ItemWithBookingDto>> ITEMS = new TypeReference<>() {
+    };
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 17, 12, 0);
+
+    @Param({"json", "smile"})
+    public String format;
+
+    @Param({"20", "200"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<BookingResponseDto> bookings;
+    private List<ItemWithBookingDto> items;
+    private byte[] encodedBookings;
+    private byte[] encodedItems;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = mapper(format);
+        bookings = bookings(size);
+        items = items(size);
+        encodedBookings = mapper.writeValueAsBytes(bookings);
+        encodedItems = mapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] encodeBookings() throws IOException {
+        return mapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> decodeBookings() throws IOException {
+        return mapper.readValue(encodedBookings, BOOKINGS);
+    }
+
+    @Benchmark
+    public byte[] encodeItems() throws IOException {
+        return mapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public List<ItemWithBookingDto> decodeItems() throws IOException {
+        return mapper.readValue(encodedItems, ITEMS);
+    }
+
+    @Test
+    void smile_whenComparedWithJson_thenPayloadIsSmallerAndRoundTrips() throws IOException, RunnerException {
+        ObjectMapper json = mapper("json");
+        ObjectMapper smile = mapper("smile");
+        for (int count : new int[]{20, 200}) {
+            List<BookingResponseDto> bookings = bookings(count);
+            List<ItemWithBookingDto> items = items(count);
+            byte[] jsonBookings = json.writeValueAsBytes(bookings);
+            byte[] smileBookings = smile.writeValueAsBytes(bookings);
+            byte[] jsonItems = json.writeValueAsBytes(items);
+            byte[] smileItems = smile.writeValueAsBytes(items);
+            log.info("size={} bookings json={}B smile={}B, items json={}B smile={}B", count,
+                    jsonBookings.length, smileBookings.length, jsonItems.length, smileItems.length);
+
+            assertEquals(bookings, smile.readValue(smileBookings, BOOKINGS));
+            assertEquals(items, smile.readValue(smileItems, ITEMS));
+            assertTrue(smileBookings.length < jsonBookings.length);
+            assertTrue(smileItems.length < jsonItems.length);
+        }
+
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(WireFormatBenchmarkTest.class.getName() + "\\.(encode|decode)")
+                .verbosity(VerboseMode.SILENT)
+                .build())
+                .run();
+        for (RunResult result : results) {
+            log.info("{} format={} size={}: {} us/op", result.getParams().getBenchmark().replaceAll(".*\\.", ""),
+                    result.getParams().getParam("format"), result.getParams().getParam("size"),
+                    String.format("%.2f", result.getPrimaryResult().getScore()));
+        }
+    }
+
+    static ObjectMapper mapper(String format) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new ParameterNamesModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("smile".equals(format)) {
+            builder.factory(new SmileFactory());
+        }
+        return builder.build();
+    }
+
+    static List<BookingResponseDto> bookings(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> BookingResponseDto.builder()
+                        .id((long) i)
+                        .start(NOW.plusDays(i))
+                        .end(NOW.plusDays(i + 1))
+                        .status(BookingStatus.values()[i % BookingStatus.values().length])
+                        .booker(new UserDto((long) i % 10, "user" + i % 10, "user" + i % 10 + "@email.ru"))
+                        .item(new ItemDto((long) i % 50, "item" + i % 50, "description of item " + i % 50,
+                                true, null))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    static List<ItemWithBookingDto> items(int count) {
+        List<ItemWithBookingDto> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<CommentResponseDto> comments = IntStream.range(0, 3)
+                    .mapToObj(j -> new CommentResponseDto((long) j, "comment text " + j, "author" + j,
+                            NOW.minusDays(j)))
+                    .collect(Collectors.toList());
+            items.add(ItemWithBookingDto.builder()
+                    .id((long) i)
+                    .name("item" + i)
+                    .description("description of item " + i)
+                    .available(i % 2 == 0)
+                    .lastBooking(new BookingResponseShortDto((long) i, NOW.minusDays(2), NOW.minusDays(1),
+                            BookingStatus.APPROVED, (long) i % 10))
+                    .nextBooking(new BookingResponseShortDto((long) i + 1, NOW.plusDays(1), NOW.plusDays(2),
+                            BookingStatus.WAITING, (long) i % 10))
+                    .comments(comments)
+                    .build());
+        }
+        return items;
+    }
+}
@@ -0,0 +1,211 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.dto.BatchItemRequestDto;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserController;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {BatchController.class, UserController.class, ItemController.class},
+        properties = "shareit-gateway.batch.max-size=4")
+@Import({BatchExecutor.class, RateLimiter.class, BatchControllerTest.MetricsConfig.class})
+class BatchControllerTest {
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserClient userClient;
+
+    @MockBean
+    private ItemClient itemClient;
+
+    @Test
+    @SneakyThrows
+    void execute_whenSubRequestBodyInvalid_thenOnlyThatSubRequestFails() {
+        UserDto valid = UserDto.builder().name("user 1").email("user1@email.ru").build();
+        UserDto invalid = UserDto.builder().name("").email("not an email").build();
+        when(userClient.add(valid)).thenReturn(Mono.just(user(1L)));
+
+        perform(null, subRequest("1", HttpMethod.POST, "/users", valid),
+                subRequest("2", HttpMethod.POST, "/users", invalid))
+                .andExpect(jsonPath("$.responses[0].status").value(200))
+                .andExpect(jsonPath("$.responses[0].body.id").value(1))
+                .andExpect(jsonPath("$.responses[1].status").value(400))
+                .andExpect(jsonPath("$.responses[1].body.error").exists());
+
+        verify(userClient, never()).add(invalid);
+    }
+
+    @Test
+    @SneakyThrows
+    void execute_whenBatchLargerThanMaxSize_thenBadRequest() {
+        BatchItemRequestDto[] requests = new BatchItemRequestDto[5];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = subRequest(String.valueOf(i), HttpMethod.GET, "/users/" + i, null);
+        }
+
+        mockMvc.perform(post("/batch")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(new BatchRequestDto(List.of(requests)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("не более 4")));
+
+        verify(userClient, never()).findById(any());
+    }
+
+    @Test
+    @SneakyThrows
+    void execute_whenSubRequestIsBatch_thenRejected() {
+        BatchRequestDto nested = new BatchRequestDto(List.of(subRequest("1", HttpMethod.GET, "/users/1", null)));
+
+        perform(null, subRequest("1", HttpMethod.POST, "/batch", nested))
+                .andExpect(jsonPath("$.responses[0].status").value(400))
+                .andExpect(jsonPath("$.responses[0].body.error")
+                        .value("Вложенные пакетные запросы не поддерживаются"));
+
+        verify(userClient, never()).findById(any());
+    }
+
+    @Test
+    @SneakyThrows
+    void execute_whenRouteNotFound_thenNotFoundOrMethodNotAllowedStatus() {
+        perform(null, subRequest("1", HttpMethod.GET, "/unknown/1", null),
+                subRequest("2", HttpMethod.DELETE, "/items/1", null))
+                .andExpect(jsonPath("$.responses[0].status").value(404))
+                .andExpect(jsonPath("$.responses[0].body.error").value("Маршрут GET /unknown/1 не найден"))
+                .andExpect(jsonPath("$.responses[1].status").value(405))
+                .andExpect(jsonPath("$.responses[1].body.error").value("Метод DELETE не поддерживается для /items/1"));
+    }
+
+    @Test
+    @SneakyThrows
+    void execute_whenSubRequestsCompleteOutOfOrder_thenResponsesKeepRequestOrder() {
+        when(userClient.findById(1L)).thenReturn(Mono.just(user(1L)).delayElement(Duration.ofMillis(200)));
+        when(userClient.findById(2L)).thenReturn(Mono.just(user(2L)));
+
+        perform(null, subRequest("slow", HttpMethod.GET, "/users/1", null),
+                subRequest("missing", HttpMethod.GET, "/unknown", null),
+                subRequest("invalid", HttpMethod.POST, "/users", UserDto.builder().build()),
+                subRequest("fast", HttpMethod.GET, "/users/2", null))
+                .andExpect(jsonPath("$.responses[*].id").value(contains(
+                        "slow", "missing", "invalid", "fast")))
+                .andExpect(jsonPath("$.responses[*].status").value(contains(
+                        200, 404, 400, 200)))
+                .andExpect(jsonPath("$.responses[0].body.id").value(1))
+                .andExpect(jsonPath("$.responses[3].body.id").value(2));
+    }
+
+    @Test
+    @SneakyThrows
+    void execute_whenUserIdHeaderSet_thenPropagatedToSubRequests() {
+        when(itemClient.findById(eq(7L), eq(1L), any())).thenReturn(Mono.just(ResponseEntity.ok(item(1L))));
+        when(itemClient.findById(eq(8L), eq(2L), any())).thenReturn(Mono.just(ResponseEntity.ok(item(2L))));
+
+        perform("7", subRequest("1", HttpMethod.GET, "/items/1", null),
+                BatchItemRequestDto.builder()
+                        .id("2")
+                        .method(HttpMethod.GET)
+                        .path("/items/2")
+                        .headers(Map.of("X-Sharer-User-Id", "8"))
+                        .build())
+                .andExpect(jsonPath("$.responses[0].status").value(200))
+                .andExpect(jsonPath("$.responses[0].body.id").value(1))
+                .andExpect(jsonPath("$.responses[1].status").value(200))
+                .andExpect(jsonPath("$.responses[1].body.id").value(2));
+
+        verify(itemClient).findById(7L, 1L, null);
+        verify(itemClient).findById(8L, 2L, null);
+    }
+
+    @Test
+    @SneakyThrows
+    void execute_whenUserIdHeaderMissing_thenSubRequestFails() {
+        perform(null, subRequest("1", HttpMethod.GET, "/items/1", null))
+                .andExpect(jsonPath("$.responses[0].status").value(500))
+                .andExpect(jsonPath("$.responses[0].body.error").value("Отсутствует header 'X-Sharer-User-Id'"));
+
+        verify(itemClient, never()).findById(any(), any(), any());
+    }
+
+    @SneakyThrows
+    private ResultActions perform(String userId, BatchItemRequestDto... requests) {
+        MockHttpServletRequestBuilder batch = post("/batch")
+                .contentType("application/json")
+                .content(objectMapper.writeValueAsString(new BatchRequestDto(List.of(requests))));
+        if (userId != null) {
+            batch.header("X-Sharer-User-Id", userId);
+        }
+        MvcResult result = mockMvc.perform(batch)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+
+    private BatchItemRequestDto subRequest(String id, HttpMethod method, String path, Object body) {
+        return BatchItemRequestDto.builder()
+                .id(id)
+                .method(method)
+                .path(path)
+                .body(body == null ? null : objectMapper.valueToTree(body))
+                .build();
+    }
+
+    private static UserDto user(Long id) {
+        return UserDto.builder().id(id).name("user " + id).email("user" + id + "@email.ru").build();
+    }
+
+    private static ItemWithBookingDto item(Long id) {
+        return ItemWithBookingDto.builder().id(id).name("item " + id).build();
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
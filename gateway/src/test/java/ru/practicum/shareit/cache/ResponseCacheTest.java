@@ -0,0 +1,255 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.booking.dto.BookingResponseShortDto;
+import ru.practicum.shareit.client.AdaptiveConcurrencyLimiter;
+import ru.practicum.shareit.client.ConcurrencyLimitProperties;
+import ru.practicum.shareit.client.LoadBalancerProperties;
+import ru.practicum.shareit.client.ServerLoadBalancer;
+import ru.practicum.shareit.client.ShareItServerTransport;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UpstreamGuardProperties;
+import ru.practicum.shareit.client.UpstreamGuards;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResponseCacheTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResponseCacheProperties properties = new ResponseCacheProperties();
+    private final AtomicLong time = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    public void setUp() {
+        properties.setMaxSize(2);
+        properties.setDefaultTtl(Duration.ofSeconds(30));
+        responseCache = new ResponseCache(properties, meterRegistry, time::get);
+        responseCache.setConnected(true);
+    }
+
+    @Test
+    void get_whenCalledTwice_thenSecondCallServedFromCache() {
+        assertEquals("user 1 #1", getUser(1L));
+        assertEquals("user 1 #1", getUser(1L));
+
+        assertEquals(1, calls.get());
+        assertEquals(1.0, requests("hit"));
+        assertEquals(1.0, requests("miss"));
+    }
+
+    @Test
+    void get_whenFeedDisconnected_thenCacheBypassedAndCleared() {
+        getUser(1L);
+
+        responseCache.setConnected(false);
+        assertEquals("user 1 #2", getUser(1L));
+        assertEquals("user 1 #3", getUser(1L));
+        responseCache.setConnected(true);
+        assertEquals("user 1 #4", getUser(1L));
+
+        assertEquals(2.0, requests("bypass"));
+        assertEquals(1.0, cacheSize());
+    }
+
+    @Test
+    void get_whenCacheDisabled_thenCacheBypassed() {
+        properties.setEnabled(false);
+
+        getUser(1L);
+        getUser(1L);
+
+        assertEquals(2, calls.get());
+        assertEquals(0.0, cacheSize());
+    }
+
+    @Test
+    void get_whenInvalidatedWhileCallInFlight_thenStaleValueNotStored() {
+        Sinks.One<String> upstream = Sinks.one();
+        List<String> results = new ArrayList<>();
+        responseCache.get("users", "/1", Set.of("user:1"), upstream::asMono).subscribe(results::add);
+
+        responseCache.onChange(ChangeType.USER, 1L);
+        upstream.tryEmitValue("stale");
+
+        assertEquals(List.of("stale"), results);
+        assertEquals(0.0, cacheSize());
+        assertEquals("user 1 #1", getUser(1L));
+        assertEquals("user 1 #1", getUser(1L));
+    }
+
+    @Test
+    void get_whenFeedReconnectedWhileCallInFlight_thenValueNotStored() {
+        Sinks.One<String> upstream = Sinks.one();
+        responseCache.get("users", "/1", Set.of("user:1"), upstream::asMono).subscribe();
+
+        responseCache.setConnected(false);
+        responseCache.setConnected(true);
+        upstream.tryEmitValue("stale");
+
+        assertEquals(0.0, cacheSize());
+    }
+
+    @Test
+    void onChange_whenEntityChanged_thenOnlyEntriesWithItsTagsDropped() {
+        properties.setMaxSize(10);
+        getUser(1L);
+        getUser(2L);
+        responseCache.get("users", "", Set.of("users"), () -> call("users")).block();
+
+        responseCache.onChange(ChangeType.USER, 1L);
+
+        assertEquals("user 1 #4", getUser(1L));
+        assertEquals("user 2 #2", getUser(2L));
+        assertEquals("users #5", responseCache.get("users", "", Set.of("users"), () -> call("users")).block());
+        assertEquals(2.0, meterRegistry.get("shareit.gateway.cache.evictions").tag("cause", "invalidated")
+                .counter().count());
+    }
+
+    @Test
+    void onChange_whenRequestChanged_thenRequestListsDropped() {
+        properties.setMaxSize(10);
+        responseCache.get("requests", " 1", Set.of("requests"), () -> call("requests")).block();
+        responseCache.get("requests", "/5 1", Set.of("request:5"), () -> call("request 5")).block();
+        getUser(1L);
+
+        responseCache.onChange(ChangeType.REQUEST, 7L);
+
+        assertEquals(2.0, cacheSize());
+        assertEquals("request 5 #2", responseCache.get("requests", "/5 1", Set.of("request:5"),
+                () -> call("request 5")).block());
+        assertEquals("requests #4", responseCache.get("requests", " 1", Set.of("requests"),
+                () -> call("requests")).block());
+    }
+
+    @Test
+    void get_whenMaxSizeExceeded_thenLeastRecentlyUsedEntryEvicted() {
+        getUser(1L);
+        getUser(2L);
+        getUser(1L);
+
+        getUser(3L);
+
+        assertEquals(2.0, cacheSize());
+        assertEquals("user 1 #1", getUser(1L));
+        assertEquals("user 3 #3", getUser(3L));
+        assertEquals("user 2 #4", getUser(2L));
+        assertEquals(2.0, meterRegistry.get("shareit.gateway.cache.evictions").tag("cause", "size")
+                .counter().count());
+    }
+
+    @Test
+    void get_whenTtlExpired_thenValueReloaded() {
+        properties.setTtl(Map.of("users", Duration.ofSeconds(5)));
+        getUser(1L);
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        assertEquals("user 1 #1", getUser(1L));
+        time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals("user 1 #2", getUser(1L));
+
+        assertEquals(1.0, meterRegistry.get("shareit.gateway.cache.evictions").tag("cause", "expired")
+                .counter().count());
+    }
+
+    @Test
+    void get_whenValueNotCacheable_thenNotStored() {
+        responseCache.get("users", "/1", Set.of("user:1"), () -> call("user 1"), value -> false).block();
+
+        assertEquals(0.0, cacheSize());
+    }
+
+    @Test
+    void findById_whenOwnerAndOtherUserRequestItem_thenViewsCachedSeparately() {
+        properties.setMaxSize(10);
+        ShareItServerTransport transport = mock(ShareItServerTransport.class);
+        when(transport.exchange(eq(HttpMethod.GET), anyString(), anyMap(), any(HttpHeaders.class), any(),
+                eq(ItemWithBookingDto.class))).thenAnswer(invocation -> {
+                    HttpHeaders headers = invocation.getArgument(3);
+                    boolean owner = "1".equals(headers.getFirst("X-Sharer-User-Id"));
+                    return Mono.just(ResponseEntity.ok(ItemWithBookingDto.builder()
+                            .id(10L)
+                            .name("Дрель")
+                            .lastBooking(owner ? BookingResponseShortDto.builder().id(5L).build() : null)
+                            .build()));
+                });
+        ItemClient itemClient = itemClient(transport);
+
+        ResponseEntity<ItemWithBookingDto> ownerView = itemClient.findById(1L, 10L, null).block();
+        ResponseEntity<ItemWithBookingDto> otherView = itemClient.findById(2L, 10L, null).block();
+        ResponseEntity<ItemWithBookingDto> cachedOwnerView = itemClient.findById(1L, 10L, null).block();
+        ResponseEntity<ItemWithBookingDto> cachedOtherView = itemClient.findById(2L, 10L, null).block();
+
+        assertNotNull(ownerView.getBody().getLastBooking());
+        assertNull(otherView.getBody().getLastBooking());
+        assertNotNull(cachedOwnerView.getBody().getLastBooking());
+        assertNull(cachedOtherView.getBody().getLastBooking());
+        verify(transport, times(2)).exchange(eq(HttpMethod.GET), anyString(), anyMap(), any(HttpHeaders.class),
+                any(), eq(ItemWithBookingDto.class));
+
+        responseCache.onChange(ChangeType.ITEM, 10L);
+
+        assertEquals(0.0, cacheSize());
+    }
+
+    private String getUser(long id) {
+        return responseCache.get("users", "/" + id, Set.of("user:" + id), () -> call("user " + id)).block();
+    }
+
+    private Mono<String> call(String value) {
+        return Mono.fromSupplier(() -> value + " #" + calls.incrementAndGet());
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("shareit.gateway.cache.requests").tag("result", result).counter().count();
+    }
+
+    private double cacheSize() {
+        return meterRegistry.get("shareit.gateway.cache.size").gauge().value();
+    }
+
+    private ItemClient itemClient(ShareItServerTransport transport) {
+        LoadBalancerProperties loadBalancerProperties = new LoadBalancerProperties();
+        loadBalancerProperties.setInstances(List.of("http://server"));
+        ConcurrencyLimitProperties concurrencyLimitProperties = new ConcurrencyLimitProperties();
+        concurrencyLimitProperties.setEnabled(false);
+        UpstreamGuardProperties upstreamGuardProperties = new UpstreamGuardProperties();
+        upstreamGuardProperties.setEnabled(false);
+        return new ItemClient(transport,
+                new ServerLoadBalancer(loadBalancerProperties, WebClient.builder(), meterRegistry),
+                new SingleFlight(meterRegistry, true),
+                new UpstreamGuards(upstreamGuardProperties,
+                        new AdaptiveConcurrencyLimiter(concurrencyLimitProperties, meterRegistry), meterRegistry),
+                responseCache, false);
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+    private final AtomicLong time = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    public void setUp() {
+        properties.setInitialLimit(20);
+        properties.setMinLimit(4);
+        properties.setMaxLimit(100);
+        properties.setShortWindow(1);
+        limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry, time::get);
+    }
+
+    @Test
+    void execute_whenRttFlat_thenLimitGrows() {
+        double previous = limit();
+        for (int i = 0; i < 3; i++) {
+            round(10);
+
+            assertTrue(limit() > previous, "Предел не вырос: " + previous + " -> " + limit());
+            previous = limit();
+        }
+        assertEquals(0.0, inFlight());
+    }
+
+    @Test
+    void execute_whenRttRises_thenLimitShrinks() {
+        round(10);
+        double previous = limit();
+
+        for (int i = 0; i < 3; i++) {
+            round(40);
+
+            assertTrue(limit() < previous, "Предел не уменьшился: " + previous + " -> " + limit());
+            previous = limit();
+        }
+    }
+
+    @Test
+    void execute_whenRttStaysHigh_thenLimitNotBelowMinimum() {
+        round(10);
+
+        for (int i = 0; i < 50; i++) {
+            round(1000);
+        }
+
+        assertEquals(properties.getMinLimit(), (int) limit());
+    }
+
+    @Test
+    void execute_whenRttZero_thenLimitStaysValid() {
+        round(0);
+
+        assertTrue(limit() >= 20, "Некорректный предел: " + limit());
+        assertEquals("ok", limiter.execute(() -> Mono.just("ok")).block());
+    }
+
+    @Test
+    void execute_whenServerError_thenLimitBacksOff() {
+        assertThrows(HttpServerErrorException.class, () -> limiter.execute(
+                () -> Mono.error(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR))).block());
+
+        assertEquals(20 * properties.getBackoffRatio(), limit(), 1e-9);
+        assertEquals(0.0, inFlight());
+    }
+
+    @Test
+    void execute_whenClientErrorOrRejection_thenLimitNotBackedOff() {
+        assertThrows(HttpClientErrorException.class, () -> limiter.execute(
+                () -> Mono.error(new HttpClientErrorException(HttpStatus.NOT_FOUND))).block());
+        assertThrows(ServiceUnavailableException.class, () -> limiter.execute(
+                () -> Mono.error(new ServiceUnavailableException("Сервис перегружен"))).block());
+
+        assertEquals(20.0, limit());
+        assertEquals(0.0, inFlight());
+    }
+
+    @Test
+    void execute_whenCallsCompleteFailOrCancelled_thenInFlightReleased() {
+        Sinks.One<String> success = Sinks.one();
+        Sinks.One<String> failure = Sinks.one();
+        limiter.execute(success::asMono).subscribe();
+        limiter.execute(failure::asMono).subscribe(value -> { }, e -> { });
+        Disposable cancelled = limiter.execute(() -> Mono.<String>never()).subscribe();
+        assertEquals(3.0, inFlight());
+
+        success.tryEmitValue("ok");
+        assertEquals(2.0, inFlight());
+        failure.tryEmitError(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+        assertEquals(1.0, inFlight());
+        cancelled.dispose();
+        assertEquals(0.0, inFlight());
+    }
+
+    @Test
+    void execute_whenLimitReached_thenServiceUnavailableExceptionThrown() {
+        properties.setInitialLimit(4);
+        limiter = new AdaptiveConcurrencyLimiter(properties, new SimpleMeterRegistry(), time::get);
+        List<Sinks.One<String>> upstreams = start(4);
+
+        assertThrows(ServiceUnavailableException.class, () -> limiter.execute(() -> {
+            calls.incrementAndGet();
+            return Mono.just("ok");
+        }).block());
+        assertEquals(4, calls.get());
+
+        time.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        upstreams.get(0).tryEmitValue("ok");
+        assertEquals("ok", limiter.execute(() -> Mono.just("ok")).block());
+    }
+
+    @Test
+    void execute_whenDisabled_thenCallsNotLimited() {
+        properties.setEnabled(false);
+        properties.setInitialLimit(4);
+        limiter = new AdaptiveConcurrencyLimiter(properties, new SimpleMeterRegistry(), time::get);
+
+        start(10);
+
+        assertEquals(10, calls.get());
+    }
+
+    private void round(long rttMillis) {
+        List<Sinks.One<String>> upstreams = start((int) limit());
+        time.addAndGet(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+        upstreams.forEach(upstream -> upstream.tryEmitValue("ok"));
+    }
+
+    private List<Sinks.One<String>> start(int count) {
+        List<Sinks.One<String>> upstreams = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Sinks.One<String> upstream = Sinks.one();
+            upstreams.add(upstream);
+            limiter.execute(() -> {
+                calls.incrementAndGet();
+                return upstream.asMono();
+            }).subscribe();
+        }
+        return upstreams;
+    }
+
+    private double limit() {
+        return meterRegistry.get("shareit.gateway.concurrency.limit").gauge().value();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("shareit.gateway.concurrency.in.flight").gauge().value();
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.client;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import ru.practicum.shareit.ShareItGateway;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Заглушка сервера принимает только h2c с prior knowledge: запрос по HTTP/1.1 или с Upgrade она не обслужит.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-gateway.client-mode=reactive",
+        "shareit-server.http-client.protocol=h2c",
+        "shareit-gateway.cache.enabled=false",
+        "shareit-server.load-balancer.health-check.enabled=false"})
+class H2cTransportTest {
+    static final String USER = "{\"id\":1,\"name\":\"user\",\"email\":\"user@email.ru\"}";
+    static final List<String> PROTOCOLS = new CopyOnWriteArrayList<>();
+    static final DisposableServer SERVER = HttpServer.create()
+            .host("localhost")
+            .port(0)
+            .protocol(HttpProtocol.H2C)
+            .route(routes -> routes.get("/users/{id}", (request, response) -> {
+                request.withConnection(connection -> PROTOCOLS.add(connection.channel() instanceof Http2StreamChannel
+                        ? "h2c" : request.protocol()));
+                return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                        .sendString(Mono.just(USER));
+            }))
+            .bindNow();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.load-balancer.instances", () -> "http://localhost:" + SERVER.port());
+    }
+
+    @Test
+    void findById_whenH2cConfigured_thenServerCalledOverHttp2PriorKnowledge() throws Exception {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/users/1"))
+                .header("X-Sharer-User-Id", "1")
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertThat(response.body()).contains("\"email\":\"user@email.ru\"");
+        assertEquals("h2c", PROTOCOLS.get(PROTOCOLS.size() - 1));
+    }
+
+    @Test
+    void start_whenH2cWithBlockingClientMode_thenStartupRefused() {
+        assertThatThrownBy(() -> new SpringApplicationBuilder(ShareItGateway.class).run("--server.port=0",
+                "--shareit-gateway.client-mode=blocking",
+                "--shareit-server.http-client.protocol=h2c",
+                "--shareit-server.load-balancer.instances=http://localhost:" + SERVER.port(),
+                "--shareit-server.load-balancer.health-check.enabled=false"))
+                .hasRootCauseInstanceOf(IllegalStateException.class)
+                .hasStackTraceContaining("shareit-gateway.client-mode=reactive");
+    }
+}
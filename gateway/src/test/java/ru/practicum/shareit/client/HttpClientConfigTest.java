@@ -0,0 +1,135 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-gateway.cache.enabled=false",
+        "shareit-server.load-balancer.health-check.enabled=false",
+        "shareit-server.http-client.max-total=5",
+        "shareit-server.http-client.max-per-route=3"})
+class HttpClientConfigTest {
+    static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    static final AtomicInteger MAX_IN_FLIGHT = new AtomicInteger();
+    static final HttpServer SERVER = stubServer();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Autowired
+    private PoolingHttpClientConnectionManager connectionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.load-balancer.instances",
+                () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @Test
+    void connectionManager_whenConfigured_thenPoolLimitsApplied() {
+        assertEquals(5, connectionManager.getMaxTotal());
+        assertEquals(3, connectionManager.getDefaultMaxPerRoute());
+    }
+
+    @Test
+    void connectionManager_whenConcurrentRequests_thenConnectionsLimitedPerRoute() {
+        MAX_IN_FLIGHT.set(0);
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(httpClient.sendAsync(request("/users/" + i), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        responses.forEach(response -> assertEquals(200, response.join().statusCode()));
+        assertEquals(3, MAX_IN_FLIGHT.get());
+    }
+
+    @Test
+    void connectionManager_whenEveryClientCalled_thenConnectionsLeasedFromOnePool() throws Exception {
+        double leases = leaseCount();
+
+        for (String path : List.of("/users/1", "/items/1", "/bookings/1", "/requests/1")) {
+            assertEquals(200, httpClient.send(request(path), HttpResponse.BodyHandlers.ofString()).statusCode());
+        }
+
+        assertEquals(leases + 4, leaseCount());
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+        assertTrue(connectionManager.getTotalStats().getAvailable() > 0);
+    }
+
+    @Test
+    void connectionManager_whenRegistered_thenPoolMetersPublished() {
+        assertEquals(5, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "shareit-server").gauge().value());
+        assertEquals(3, meterRegistry.get("httpcomponents.httpclient.pool.route.max.default")
+                .tag("httpclient", "shareit-server").gauge().value());
+        assertEquals(2, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "shareit-server").gauges().size());
+        meterRegistry.get("httpcomponents.httpclient.pool.total.pending").tag("httpclient", "shareit-server").gauge();
+        meterRegistry.get("shareit.gateway.http.pool.lease").timer();
+    }
+
+    private double leaseCount() {
+        return meterRegistry.get("shareit.gateway.http.pool.lease").timer().count();
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("X-Sharer-User-Id", "1")
+                .build();
+    }
+
+    private static HttpServer stubServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/", exchange -> {
+                MAX_IN_FLIGHT.accumulateAndGet(IN_FLIGHT.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    IN_FLIGHT.decrementAndGet();
+                }
+                byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
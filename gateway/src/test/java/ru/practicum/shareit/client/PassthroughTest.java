@@ -0,0 +1,164 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Шлюз в режиме passthrough против заглушки сервера. Заглушка общая с ReactivePassthroughTest.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-gateway.passthrough=true",
+        "shareit-gateway.cache.enabled=false",
+        "shareit-server.load-balancer.health-check.enabled=false"})
+class PassthroughTest {
+    static final String ITEM = "{\"id\":1,\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}";
+    static final String NOT_FOUND = "{\"error\":\"Вещь с id 2 не найдена\"}";
+    static final byte[] GZIPPED_ITEM = gzip(ITEM);
+    static final List<String> ACCEPT_ENCODINGS = new CopyOnWriteArrayList<>();
+    static final HttpServer SERVER = stubServer();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.load-balancer.instances",
+                () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @Test
+    void findById_whenClientAcceptsGzip_thenServerBytesRelayedAsIs() throws Exception {
+        HttpResponse<byte[]> response = get("/items/1", "gzip, deflate");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(Optional.of("gzip"), response.headers().firstValue("Content-Encoding"));
+        assertArrayEquals(GZIPPED_ITEM, response.body());
+        assertEquals("gzip", ACCEPT_ENCODINGS.get(ACCEPT_ENCODINGS.size() - 1));
+    }
+
+    @Test
+    void findById_whenServerSendsHopByHopHeaders_thenOnlyEndToEndHeadersRelayed() throws Exception {
+        HttpResponse<byte[]> response = get("/items/1", "gzip");
+
+        assertEquals(Optional.of("\"item-1\""), response.headers().firstValue("ETag"));
+        assertEquals(Optional.of("custom"), response.headers().firstValue("X-Custom"));
+        assertFalse(response.headers().firstValue("Proxy-Authenticate").isPresent());
+        assertFalse(response.headers().firstValue("Trailer").isPresent());
+        assertFalse(response.headers().allValues("Keep-Alive").contains("timeout=1"));
+        response.headers().firstValueAsLong("Content-Length")
+                .ifPresent(length -> assertEquals(response.body().length, length));
+    }
+
+    @Test
+    void findById_whenClientDoesNotAcceptGzip_thenBodyDecompressed() throws Exception {
+        HttpResponse<byte[]> response = get("/items/1", null);
+
+        assertDecompressed(response);
+    }
+
+    @Test
+    void findById_whenClientRefusesGzipWithZeroQuality_thenBodyDecompressed() throws Exception {
+        assertDecompressed(get("/items/1", "gzip;q=0"));
+        assertDecompressed(get("/items/1", "deflate, gzip; q=0.000"));
+        assertDecompressed(get("/items/1", "identity"));
+    }
+
+    @Test
+    void findById_whenClientAcceptsAnyEncoding_thenBodyNotDecompressed() throws Exception {
+        assertArrayEquals(GZIPPED_ITEM, get("/items/1", "*").body());
+        assertArrayEquals(GZIPPED_ITEM, get("/items/1", "gzip;q=0.5").body());
+    }
+
+    @Test
+    void findById_whenServerReturnsGzippedError_thenErrorRelayedAsJson() throws Exception {
+        HttpResponse<byte[]> response = get("/items/2", null);
+
+        assertEquals(404, response.statusCode());
+        assertFalse(response.headers().firstValue("Content-Encoding").isPresent());
+        assertEquals(NOT_FOUND, new String(response.body(), StandardCharsets.UTF_8));
+    }
+
+    private void assertDecompressed(HttpResponse<byte[]> response) {
+        assertEquals(200, response.statusCode());
+        assertFalse(response.headers().firstValue("Content-Encoding").isPresent());
+        assertEquals(ITEM, new String(response.body(), StandardCharsets.UTF_8));
+        response.headers().firstValueAsLong("Content-Length")
+                .ifPresent(length -> assertEquals(response.body().length, length));
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("X-Sharer-User-Id", "1");
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static HttpServer stubServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/items/1", exchange -> {
+                ACCEPT_ENCODINGS.add(String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding")));
+                exchange.getResponseHeaders().add("ETag", "\"item-1\"");
+                exchange.getResponseHeaders().add("X-Custom", "custom");
+                exchange.getResponseHeaders().add("Proxy-Authenticate", "Basic");
+                exchange.getResponseHeaders().add("Trailer", "X-Checksum");
+                exchange.getResponseHeaders().add("Keep-Alive", "timeout=1");
+                respond(exchange, 200, GZIPPED_ITEM);
+            });
+            server.createContext("/items/2", exchange -> respond(exchange, 404, gzip(NOT_FOUND)));
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] gzip(String body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-gateway.client-mode=reactive",
+        "shareit-gateway.passthrough=true",
+        "shareit-gateway.cache.enabled=false",
+        "shareit-server.load-balancer.health-check.enabled=false"})
+class ReactivePassthroughTest extends PassthroughTest {
+}
@@ -0,0 +1,224 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerLoadBalancerTest {
+    private static final int REQUESTS = 30;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RestTemplate rest = new RestTemplate();
+    private final LoadBalancerProperties properties = new LoadBalancerProperties();
+    private final Stub first = new Stub("first");
+    private final Stub second = new Stub("second");
+    private ServerLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        properties.getHealthCheck().setInterval(Duration.ofMillis(20));
+        properties.getHealthCheck().setTimeout(Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (loadBalancer != null) {
+            loadBalancer.stopHealthChecks();
+        }
+        first.server.stop(0);
+        second.server.stop(0);
+    }
+
+    @Test
+    void execute_whenGetFailsWithUnavailableStatus_thenRetriedOnAnotherInstance() {
+        startWithOnlyFirstHealthy();
+        for (HttpStatus status : List.of(HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE,
+                HttpStatus.GATEWAY_TIMEOUT)) {
+            first.status.set(status.value());
+
+            assertEquals("second", call(HttpMethod.GET));
+        }
+
+        assertEquals(3, first.hits.get());
+        assertEquals(3, second.hits.get());
+        assertEquals(3.0, meterRegistry.get("shareit.gateway.instance.retries").counter().count());
+    }
+
+    @Test
+    void execute_whenPostFails_thenNotRetried() {
+        startWithOnlyFirstHealthy();
+        first.status.set(HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        assertThrows(HttpServerErrorException.class, () -> call(HttpMethod.POST));
+
+        assertEquals(1, first.hits.get());
+        assertEquals(0, second.hits.get());
+        assertEquals(0.0, meterRegistry.get("shareit.gateway.instance.retries").counter().count());
+    }
+
+    @Test
+    void execute_whenGetFailsWithApplicationError_thenNotRetried() {
+        startWithOnlyFirstHealthy();
+        first.status.set(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        assertThrows(HttpServerErrorException.class, () -> call(HttpMethod.GET));
+        first.status.set(HttpStatus.NOT_FOUND.value());
+        assertThrows(HttpClientErrorException.class, () -> call(HttpMethod.GET));
+
+        assertEquals(2, first.hits.get());
+        assertEquals(0, second.hits.get());
+    }
+
+    @Test
+    void execute_whenInstanceRefusesConnections_thenGetRetriedOnAnotherInstance() {
+        properties.getHealthCheck().setEnabled(false);
+        properties.setInstances(List.of("http://localhost:" + freePort(), second.url()));
+        start();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            assertEquals("second", call(HttpMethod.GET));
+        }
+
+        assertEquals(REQUESTS, second.hits.get());
+        assertTrue(meterRegistry.get("shareit.gateway.instance.retries").counter().count() > 0);
+    }
+
+    @Test
+    void execute_whenInstanceEjected_thenSkippedUntilHealthyAgain() {
+        properties.setInstances(List.of(first.url(), second.url()));
+        first.health.set(HttpStatus.SERVICE_UNAVAILABLE.value());
+        start();
+        awaitHealthy(first, false);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            assertEquals("second", call(HttpMethod.GET));
+        }
+        assertEquals(0, first.hits.get());
+
+        first.health.set(HttpStatus.OK.value());
+        awaitHealthy(first, true);
+        for (int i = 0; i < REQUESTS; i++) {
+            call(HttpMethod.GET);
+        }
+
+        assertTrue(first.hits.get() > 0);
+        assertEquals(0.0, meterRegistry.get("shareit.gateway.instance.retries").counter().count());
+    }
+
+    @Test
+    void execute_whenAllInstancesEjected_thenRequestsStillServed() {
+        properties.setInstances(List.of(first.url(), second.url()));
+        first.health.set(HttpStatus.SERVICE_UNAVAILABLE.value());
+        second.health.set(HttpStatus.SERVICE_UNAVAILABLE.value());
+        start();
+        awaitHealthy(first, false);
+        awaitHealthy(second, false);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            call(HttpMethod.GET);
+        }
+
+        assertEquals(REQUESTS, first.hits.get() + second.hits.get());
+    }
+
+    private void startWithOnlyFirstHealthy() {
+        properties.setInstances(List.of(first.url(), second.url()));
+        second.health.set(HttpStatus.SERVICE_UNAVAILABLE.value());
+        start();
+        awaitHealthy(second, false);
+        loadBalancer.stopHealthChecks();
+    }
+
+    private void start() {
+        loadBalancer = new ServerLoadBalancer(properties, WebClient.builder(), meterRegistry);
+        loadBalancer.startHealthChecks();
+    }
+
+    private String call(HttpMethod method) {
+        return loadBalancer.execute(method, url -> Mono.fromCallable(() ->
+                rest.exchange(url + "/items/1", method, null, String.class).getBody())).block();
+    }
+
+    private void awaitHealthy(Stub stub, boolean healthy) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (healthy != (meterRegistry.get("shareit.gateway.instance.healthy").tag("instance", stub.url())
+                .gauge().value() == 1)) {
+            assertTrue(System.nanoTime() < deadline, "Состояние экземпляра " + stub.url() + " не изменилось");
+            sleep();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class Stub {
+        private final HttpServer server;
+        private final AtomicInteger status = new AtomicInteger(HttpStatus.OK.value());
+        private final AtomicInteger health = new AtomicInteger(HttpStatus.OK.value());
+        private final AtomicInteger hits = new AtomicInteger();
+
+        Stub(String name) {
+            try {
+                server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            server.createContext("/items/1", exchange -> {
+                hits.incrementAndGet();
+                respond(exchange, status.get(), name);
+            });
+            server.createContext("/actuator/health", exchange -> respond(exchange, health.get(), "{}"));
+            server.start();
+        }
+
+        String url() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
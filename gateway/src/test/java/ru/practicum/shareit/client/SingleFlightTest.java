@@ -0,0 +1,169 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SingleFlightTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry, true);
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private Sinks.One<String> upstream;
+
+    @BeforeEach
+    public void setUp() {
+        upstream = Sinks.one();
+    }
+
+    @Test
+    void execute_whenIdenticalKeysConcurrent_thenUpstreamSubscribedOnceAndAllWaitersGetResult() throws Exception {
+        int waiters = 16;
+        List<String> results = new CopyOnWriteArrayList<>();
+        CountDownLatch ready = new CountDownLatch(1);
+        CountDownLatch subscribed = new CountDownLatch(waiters);
+        ExecutorService executor = Executors.newFixedThreadPool(waiters);
+        for (int i = 0; i < waiters; i++) {
+            executor.submit(() -> {
+                ready.await();
+                singleFlight.execute("GET /items/1", this::call).subscribe(results::add);
+                subscribed.countDown();
+                return null;
+            });
+        }
+        ready.countDown();
+        assertTrue(subscribed.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(1.0, inFlight());
+        upstream.tryEmitValue("item");
+
+        assertEquals(1, subscriptions.get());
+        assertEquals(waiters, results.size());
+        assertTrue(results.stream().allMatch("item"::equals));
+        assertEquals(1.0, counter("leader"));
+        assertEquals(waiters - 1.0, counter("coalesced"));
+        assertEquals(0.0, inFlight());
+    }
+
+    @Test
+    void execute_whenUpstreamFails_thenAllWaitersGetErrorAndEntryRemoved() {
+        List<Throwable> errors = new ArrayList<>();
+        singleFlight.execute("GET /items/1", this::call).subscribe(value -> { }, errors::add);
+        singleFlight.execute("GET /items/1", this::call).subscribe(value -> { }, errors::add);
+
+        upstream.tryEmitError(new IllegalStateException("upstream"));
+
+        assertEquals(2, errors.size());
+        assertEquals(1, subscriptions.get());
+        assertEquals(0.0, inFlight());
+    }
+
+    @Test
+    void execute_whenPreviousCallCompleted_thenUpstreamSubscribedAgain() {
+        assertEquals("first", singleFlight.execute("GET /items/1", () -> Mono.just("first")).block());
+        assertEquals("second", singleFlight.execute("GET /items/1", () -> Mono.just("second")).block());
+
+        assertEquals(0.0, inFlight());
+        assertEquals(2.0, counter("leader"));
+    }
+
+    @Test
+    void execute_whenDisabled_thenEveryCallSubscribesUpstream() {
+        SingleFlight disabled = new SingleFlight(new SimpleMeterRegistry(), false);
+
+        disabled.execute("GET /items/1", this::call).subscribe();
+        disabled.execute("GET /items/1", this::call).subscribe();
+
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    void get_whenUserOrQueryDiffers_thenRequestsNotCoalesced() {
+        List<Sinks.One<ResponseEntity<String>>> responses = new CopyOnWriteArrayList<>();
+        List<HttpHeaders> sentHeaders = new CopyOnWriteArrayList<>();
+        List<String> sentUris = new CopyOnWriteArrayList<>();
+        ShareItServerTransport transport = mock(ShareItServerTransport.class);
+        when(transport.exchange(eq(HttpMethod.GET), anyString(), anyMap(), any(HttpHeaders.class), any(),
+                eq(String.class))).thenAnswer(invocation -> {
+                    Map<String, Object> uriVariables = invocation.getArgument(2);
+                    sentUris.add(invocation.getArgument(1) + " " + uriVariables);
+                    sentHeaders.add(invocation.getArgument(3));
+                    Sinks.One<ResponseEntity<String>> response = Sinks.one();
+                    responses.add(response);
+                    return response.asMono();
+                });
+        BaseClient client = client(transport);
+        List<String> results = new CopyOnWriteArrayList<>();
+
+        client.get("/1", 1L, null, String.class).subscribe(results::add);
+        client.get("/1", 1L, null, String.class).subscribe(results::add);
+        client.get("/1", 2L, null, String.class).subscribe(results::add);
+        client.get("/search?text={text}", 1L, Map.of("text", "дрель"), String.class).subscribe(results::add);
+        client.get("/search?text={text}", 1L, Map.of("text", "клей"), String.class).subscribe(results::add);
+        responses.forEach(response -> response.tryEmitValue(ResponseEntity.ok("body")));
+
+        assertEquals(4, responses.size());
+        assertEquals(List.of("1", "2", "1", "1"), sentHeaders.stream()
+                .map(headers -> headers.getFirst("X-Sharer-User-Id"))
+                .collect(Collectors.toList()));
+        assertEquals(List.of("http://server/items/1 {}", "http://server/items/1 {}",
+                "http://server/items/search?text={text} {text=дрель}",
+                "http://server/items/search?text={text} {text=клей}"), sentUris);
+        assertEquals(5, results.size());
+        assertEquals(0.0, inFlight());
+    }
+
+    private Mono<String> call() {
+        return Mono.defer(() -> {
+            subscriptions.incrementAndGet();
+            return upstream.asMono();
+        });
+    }
+
+    private BaseClient client(ShareItServerTransport transport) {
+        LoadBalancerProperties loadBalancerProperties = new LoadBalancerProperties();
+        loadBalancerProperties.setInstances(List.of("http://server"));
+        ConcurrencyLimitProperties concurrencyLimitProperties = new ConcurrencyLimitProperties();
+        concurrencyLimitProperties.setEnabled(false);
+        UpstreamGuard upstreamGuard = new UpstreamGuard("items", false, new UpstreamGuardProperties.Route(),
+                new AdaptiveConcurrencyLimiter(concurrencyLimitProperties, meterRegistry), meterRegistry);
+        return new BaseClient("/items", transport,
+                new ServerLoadBalancer(loadBalancerProperties, WebClient.builder(), meterRegistry), singleFlight,
+                upstreamGuard, false);
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("shareit.gateway.coalescing.requests").tag("result", result).counter().count();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("shareit.gateway.coalescing.in.flight").gauge().value();
+    }
+}
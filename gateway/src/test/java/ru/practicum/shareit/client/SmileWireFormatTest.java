@@ -0,0 +1,161 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Шлюз с shareit-server.http-client.wire-format=smile против заглушки сервера. Заглушка общая с
+ * ReactiveSmileWireFormatTest.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-server.http-client.wire-format=smile",
+        "shareit-gateway.cache.enabled=false",
+        "shareit-server.load-balancer.health-check.enabled=false"})
+class SmileWireFormatTest {
+    static final String SMILE = "application/x-jackson-smile";
+    static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory());
+    static final List<String> ACCEPTS = new CopyOnWriteArrayList<>();
+    static final List<String> CONTENT_TYPES = new CopyOnWriteArrayList<>();
+    static final HttpServer SERVER = stubServer();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.load-balancer.instances",
+                () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @Test
+    void findById_whenServerOffersSmile_thenSmileRequestedAndJsonReturned() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/users/1")).GET());
+
+        assertJson(response, 200, user(1));
+        assertTrue(ACCEPTS.get(ACCEPTS.size() - 1).startsWith(SMILE));
+    }
+
+    @Test
+    void findById_whenClientAcceptsAnything_thenJsonReturned() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/users/1")).header("Accept", "*/*").GET());
+
+        assertJson(response, 200, user(1));
+    }
+
+    @Test
+    void findById_whenServerOffersOnlyJson_thenJsonUsed() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/users/2")).GET());
+
+        assertJson(response, 200, user(2));
+        assertTrue(ACCEPTS.get(ACCEPTS.size() - 1).startsWith(SMILE));
+    }
+
+    @Test
+    void findById_whenServerReturnsSmileError_thenErrorReturnedAsJson() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/users/3")).GET());
+
+        assertJson(response, 404, error());
+    }
+
+    @Test
+    void add_whenSmileNegotiated_thenBodySentAsSmileAndJsonReturned() throws Exception {
+        String body = JSON_MAPPER.writeValueAsString(user(null));
+
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/users"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+
+        assertJson(response, 200, user(5));
+        assertTrue(CONTENT_TYPES.get(CONTENT_TYPES.size() - 1).startsWith(SMILE));
+    }
+
+    private void assertJson(HttpResponse<String> response, int status, JsonNode expected) throws IOException {
+        assertEquals(status, response.statusCode());
+        assertEquals(expected, JSON_MAPPER.readTree(response.body()));
+        Optional<String> contentType = response.headers().firstValue("Content-Type");
+        assertTrue(contentType.orElse("").startsWith("application/json"), "Content-Type: " + contentType);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return httpClient.send(request.header("X-Sharer-User-Id", "1").build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static ObjectNode user(Integer id) {
+        ObjectNode user = JSON_MAPPER.createObjectNode();
+        if (id != null) {
+            user.put("id", id);
+        }
+        return user.put("name", "Иван").put("email", "ivan@mail.ru");
+    }
+
+    private static ObjectNode error() {
+        return JSON_MAPPER.createObjectNode().put("error", "Пользователь не найден");
+    }
+
+    private static HttpServer stubServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/users/1", exchange -> respond(exchange, 200, user(1), true));
+            server.createContext("/users/2", exchange -> respond(exchange, 200, user(2), false));
+            server.createContext("/users/3", exchange -> respond(exchange, 404, error(), true));
+            server.createContext("/users", exchange -> {
+                String contentType = String.valueOf(exchange.getRequestHeaders().getFirst("Content-Type"));
+                CONTENT_TYPES.add(contentType);
+                try (InputStream in = exchange.getRequestBody()) {
+                    ObjectNode user = (ObjectNode) (contentType.startsWith(SMILE) ? SMILE_MAPPER : JSON_MAPPER)
+                            .readTree(in.readAllBytes());
+                    respond(exchange, 200, user.put("id", 5), true);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, JsonNode body, boolean offersSmile)
+            throws IOException {
+        String accept = String.valueOf(exchange.getRequestHeaders().getFirst("Accept"));
+        ACCEPTS.add(accept);
+        boolean smile = offersSmile && accept.contains(SMILE);
+        byte[] bytes = smile ? SMILE_MAPPER.writeValueAsBytes(body) : JSON_MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", smile ? SMILE : "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamGuardTest {
+    private static final Duration SLOW_CALL = Duration.ofSeconds(1);
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(10);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong time = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private UpstreamGuard guard;
+
+    @BeforeEach
+    public void setUp() {
+        UpstreamGuardProperties.Route settings = new UpstreamGuardProperties.Route();
+        settings.setMaxConcurrent(2);
+        settings.setSlidingWindowSize(4);
+        settings.setMinimumCalls(4);
+        settings.setFailureRateThreshold(0.5);
+        settings.setSlowCallDuration(SLOW_CALL);
+        settings.setOpenDuration(OPEN_DURATION);
+        settings.setHalfOpenCalls(2);
+        ConcurrencyLimitProperties concurrencyLimitProperties = new ConcurrencyLimitProperties();
+        concurrencyLimitProperties.setEnabled(false);
+        guard = new UpstreamGuard("items", true, settings,
+                new AdaptiveConcurrencyLimiter(concurrencyLimitProperties, meterRegistry), meterRegistry, time::get);
+    }
+
+    @Test
+    void execute_whenFailureRateReachesThreshold_thenCircuitOpens() {
+        succeed();
+        succeed();
+        succeed();
+        fail();
+        assertEquals(UpstreamGuard.State.CLOSED, guard.getState());
+
+        fail();
+
+        assertEquals(UpstreamGuard.State.OPEN, guard.getState());
+        assertRejected("временно недоступен");
+        assertEquals(5, calls.get());
+        assertEquals(1.0, rejected("circuit_open"));
+    }
+
+    @Test
+    void execute_whenClientErrors_thenCircuitStaysClosed() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpClientErrorException.class, () -> guard.execute(() -> {
+                calls.incrementAndGet();
+                return Mono.error(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+            }).block());
+        }
+
+        assertEquals(UpstreamGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void execute_whenCallsSlow_thenCircuitOpens() {
+        succeed();
+        succeed();
+        slow();
+        assertEquals(UpstreamGuard.State.CLOSED, guard.getState());
+
+        slow();
+
+        assertEquals(UpstreamGuard.State.OPEN, guard.getState());
+        assertRejected("временно недоступен");
+    }
+
+    @Test
+    void execute_whenOpenDurationPassed_thenCircuitHalfOpen() {
+        openCircuit();
+
+        time.addAndGet(OPEN_DURATION.toNanos() - 1);
+        assertRejected("временно недоступен");
+        time.incrementAndGet();
+        Sinks.One<String> upstream = Sinks.one();
+        guard.execute(upstream::asMono).subscribe();
+
+        assertEquals(UpstreamGuard.State.HALF_OPEN, guard.getState());
+        upstream.tryEmitValue("ok");
+    }
+
+    @Test
+    void execute_whenHalfOpenCallsSucceed_thenCircuitClosed() {
+        openCircuit();
+        time.addAndGet(OPEN_DURATION.toNanos());
+
+        succeed();
+        assertEquals(UpstreamGuard.State.HALF_OPEN, guard.getState());
+        succeed();
+
+        assertEquals(UpstreamGuard.State.CLOSED, guard.getState());
+        fail();
+        assertEquals(UpstreamGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void execute_whenHalfOpenCallFails_thenCircuitOpenedAgain() {
+        openCircuit();
+        time.addAndGet(OPEN_DURATION.toNanos());
+
+        succeed();
+        fail();
+
+        assertEquals(UpstreamGuard.State.OPEN, guard.getState());
+        assertRejected("временно недоступен");
+    }
+
+    @Test
+    void execute_whenHalfOpenCallsInFlight_thenExtraCallRejected() {
+        openCircuit();
+        time.addAndGet(OPEN_DURATION.toNanos());
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        guard.execute(first::asMono).subscribe();
+        guard.execute(second::asMono).subscribe();
+
+        assertRejected("временно недоступен");
+
+        first.tryEmitValue("ok");
+        second.tryEmitValue("ok");
+        assertEquals(UpstreamGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void execute_whenBulkheadFull_thenCallRejected() {
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        guard.execute(first::asMono).subscribe();
+        guard.execute(second::asMono).subscribe();
+        assertEquals(2.0, inFlight());
+
+        assertRejected("перегружен");
+        assertEquals(1.0, rejected("bulkhead_full"));
+
+        first.tryEmitValue("ok");
+        assertEquals(1.0, inFlight());
+        succeed();
+        second.tryEmitValue("ok");
+        assertEquals(0.0, inFlight());
+        assertEquals(UpstreamGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void execute_whenCallCancelled_thenPermitReleased() {
+        Disposable first = guard.execute(() -> Mono.<String>never()).subscribe();
+        Disposable second = guard.execute(() -> Mono.<String>never()).subscribe();
+        assertEquals(2.0, inFlight());
+
+        first.dispose();
+        second.dispose();
+
+        assertEquals(0.0, inFlight());
+        succeed();
+        succeed();
+    }
+
+    @Test
+    void execute_whenHalfOpenCallCancelled_thenHalfOpenPermitReleased() {
+        openCircuit();
+        time.addAndGet(OPEN_DURATION.toNanos());
+        guard.execute(() -> Mono.<String>never()).subscribe().dispose();
+        guard.execute(() -> Mono.<String>never()).subscribe().dispose();
+
+        succeed();
+        succeed();
+
+        assertEquals(UpstreamGuard.State.CLOSED, guard.getState());
+        assertEquals(0.0, inFlight());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        assertEquals(UpstreamGuard.State.OPEN, guard.getState());
+    }
+
+    private void succeed() {
+        assertEquals("ok", guard.execute(() -> {
+            calls.incrementAndGet();
+            return Mono.just("ok");
+        }).block());
+    }
+
+    private void slow() {
+        assertEquals("ok", guard.execute(() -> Mono.fromSupplier(() -> {
+            calls.incrementAndGet();
+            time.addAndGet(SLOW_CALL.toNanos());
+            return "ok";
+        })).block());
+    }
+
+    private void fail() {
+        assertThrows(HttpServerErrorException.class, () -> guard.execute(() -> {
+            calls.incrementAndGet();
+            return Mono.error(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+        }).block());
+    }
+
+    private void assertRejected(String message) {
+        int before = calls.get();
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+                () -> guard.execute(() -> {
+                    calls.incrementAndGet();
+                    return Mono.just("ok");
+                }).block());
+        assertEquals(before, calls.get());
+        assertTrue(e.getMessage().contains(message), e.getMessage());
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("shareit.gateway.upstream.rejected").tag("reason", reason).counter().count();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("shareit.gateway.upstream.in.flight").gauge().value();
+    }
+}
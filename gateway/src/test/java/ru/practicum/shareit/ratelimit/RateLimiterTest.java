@@ -0,0 +1,204 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.exception.ErrorHandler;
+import ru.practicum.shareit.exception.ErrorResponse;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import javax.servlet.DispatcherType;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private final AtomicLong time = new AtomicLong();
+    private final HandlerMethod itemsHandler = handler(new ItemsController());
+    private final HandlerMethod usersHandler = handler(new UsersController());
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setUp() {
+        properties.getDefaultLimit().setCapacity(3);
+        properties.getDefaultLimit().setRefillPerSecond(1);
+        rateLimiter = new RateLimiter(properties, meterRegistry, time::get);
+    }
+
+    @Test
+    void preHandle_whenBurstExceedsCapacity_thenTooManyRequestsWithRetryAfter() {
+        properties.setLimits(Map.of("items", limit(2, 0.5)));
+        acquire("1", itemsHandler, "/items/{itemId}");
+        acquire("1", itemsHandler, "/items/{itemId}");
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> acquire("1", itemsHandler, "/items/{itemId}"));
+
+        assertEquals(2, e.getRetryAfterSeconds());
+        ResponseEntity<ErrorResponse> response = new ErrorHandler().handleTooManyRequests(e);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("shareit.gateway.rate-limit.rejected").tag("controller", "items")
+                .counter().count());
+    }
+
+    @Test
+    void preHandle_whenPartOfIntervalPassed_thenRetryAfterRoundedUp() {
+        exhaust("1", usersHandler, "/users/{id}");
+        time.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> acquire("1", usersHandler, "/users/{id}"));
+
+        assertEquals(1, e.getRetryAfterSeconds());
+    }
+
+    @Test
+    void preHandle_whenTimePassed_thenTokensRefilled() {
+        exhaust("1", usersHandler, "/users/{id}");
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        acquire("1", usersHandler, "/users/{id}");
+        assertThrows(TooManyRequestsException.class, () -> acquire("1", usersHandler, "/users/{id}"));
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        exhaust("1", usersHandler, "/users/{id}");
+    }
+
+    @Test
+    void preHandle_whenOtherUserOrRoute_thenSeparateBucketUsed() {
+        exhaust("1", usersHandler, "/users/{id}");
+
+        acquire("2", usersHandler, "/users/{id}");
+        acquire("1", usersHandler, "/users");
+        acquire("1", itemsHandler, "/items/{itemId}");
+
+        assertEquals(4.0, keys());
+    }
+
+    @Test
+    void preHandle_whenNoUserHeader_thenRemoteAddressUsedAsKey() {
+        MockHttpServletRequest first = request(null, "/users/{id}");
+        first.setRemoteAddr("10.0.0.1");
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.preHandle(first, new MockHttpServletResponse(), usersHandler);
+        }
+        assertThrows(TooManyRequestsException.class,
+                () -> rateLimiter.preHandle(first, new MockHttpServletResponse(), usersHandler));
+
+        MockHttpServletRequest second = request(null, "/users/{id}");
+        second.setRemoteAddr("10.0.0.2");
+        assertTrue(rateLimiter.preHandle(second, new MockHttpServletResponse(), usersHandler));
+    }
+
+    @Test
+    void preHandle_whenKeysExceedMaxKeys_thenMapTrimmed() {
+        properties.setMaxKeys(2);
+
+        for (int i = 1; i <= 5; i++) {
+            acquire(String.valueOf(i), usersHandler, "/users/{id}");
+            assertTrue(keys() <= 2, "Ключей больше max-keys: " + keys());
+        }
+
+        assertEquals(3.0, evictions());
+    }
+
+    @Test
+    void preHandle_whenBucketsIdle_thenEvictedOnSweep() {
+        properties.setIdleTimeout(Duration.ofMinutes(10));
+        acquire("1", usersHandler, "/users/{id}");
+        acquire("2", usersHandler, "/users/{id}");
+
+        time.addAndGet(Duration.ofMinutes(11).toNanos());
+        acquire("3", usersHandler, "/users/{id}");
+
+        assertEquals(1.0, keys());
+        assertEquals(2.0, evictions());
+    }
+
+    @Test
+    void preHandle_whenDisabledOrAsyncDispatch_thenNotLimited() {
+        properties.setEnabled(false);
+        for (int i = 0; i < 10; i++) {
+            acquire("1", usersHandler, "/users/{id}");
+        }
+        properties.setEnabled(true);
+        exhaust("1", usersHandler, "/users/{id}");
+
+        MockHttpServletRequest async = request("1", "/users/{id}");
+        async.setDispatcherType(DispatcherType.ASYNC);
+
+        assertTrue(rateLimiter.preHandle(async, new MockHttpServletResponse(), usersHandler));
+    }
+
+    private void exhaust(String userId, HandlerMethod handler, String pattern) {
+        for (int i = 0; i < 3; i++) {
+            acquire(userId, handler, pattern);
+        }
+        assertThrows(TooManyRequestsException.class, () -> acquire(userId, handler, pattern));
+    }
+
+    private void acquire(String userId, HandlerMethod handler, String pattern) {
+        assertTrue(rateLimiter.preHandle(request(userId, pattern), new MockHttpServletResponse(), handler));
+    }
+
+    private static MockHttpServletRequest request(String userId, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        if (userId != null) {
+            request.addHeader("X-Sharer-User-Id", userId);
+        }
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+
+    private static RateLimitProperties.Limit limit(int capacity, double refillPerSecond) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(refillPerSecond);
+        return limit;
+    }
+
+    private static HandlerMethod handler(Object controller) {
+        try {
+            return new HandlerMethod(controller, "handle");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double keys() {
+        return meterRegistry.get("shareit.gateway.rate-limit.keys").gauge().value();
+    }
+
+    private double evictions() {
+        return meterRegistry.get("shareit.gateway.rate-limit.evictions").counter().count();
+    }
+
+    @RequestMapping("/items")
+    static class ItemsController {
+        public void handle() {
+        }
+    }
+
+    @RequestMapping("/users")
+    static class UsersController {
+        public void handle() {
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,10 +11,14 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.utility.EntityTags;
+import ru.practicum.shareit.utility.PageCursor;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestController
@@ -43,18 +48,47 @@ public class BookingController {
     public List<BookingResponseDto> findAllBookingByUserIdAndState(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                                    @RequestParam(defaultValue = "ALL") String state,
                                                                    @RequestParam(defaultValue = "0") int from,
-                                                                   @RequestParam(defaultValue = "10") int size) {
-        return bookingService.findAllBookingByUserIdAndState(userId, state, from, size);
-
+                                                                   @RequestParam(defaultValue = "10") int size,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   HttpServletResponse response,
+                                                                   WebRequest request) {
+        if (EntityTags.isConditional(request) && request.checkNotModified(cursor != null
+                ? bookingService.getEntityTagByUserIdAndState(userId, state, cursor, size)
+                : bookingService.getEntityTagByUserIdAndState(userId, state, from, size))) {
+            return null;
+        }
+        List<BookingResponseDto> bookings = cursor != null
+                ? bookingService.findAllBookingByUserIdAndState(userId, state, cursor, size)
+                : bookingService.findAllBookingByUserIdAndState(userId, state, from, size);
+        setNextCursor(response, bookings, size);
+        response.setHeader(HttpHeaders.ETAG, EntityTags.of(bookings, BookingResponseDto::getVersionStamp));
+        return bookings;
     }
 
     @GetMapping("/owner")
     public List<BookingResponseDto> findAllBookingByOwnerIdAndState(@RequestHeader("X-Sharer-User-Id") Long ownerId,
                                                                     @RequestParam(defaultValue = "ALL") String state,
                                                                     @RequestParam(defaultValue = "0") int from,
-                                                                    @RequestParam(defaultValue = "10") int size) {
-        return bookingService.findAllBookingByOwnerIdAndState(ownerId, state, from, size);
+                                                                    @RequestParam(defaultValue = "10") int size,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    HttpServletResponse response,
+                                                                    WebRequest request) {
+        if (EntityTags.isConditional(request) && request.checkNotModified(cursor != null
+                ? bookingService.getEntityTagByOwnerIdAndState(ownerId, state, cursor, size)
+                : bookingService.getEntityTagByOwnerIdAndState(ownerId, state, from, size))) {
+            return null;
+        }
+        List<BookingResponseDto> bookings = cursor != null
+                ? bookingService.findAllBookingByOwnerIdAndState(ownerId, state, cursor, size)
+                : bookingService.findAllBookingByOwnerIdAndState(ownerId, state, from, size);
+        setNextCursor(response, bookings, size);
+        response.setHeader(HttpHeaders.ETAG, EntityTags.of(bookings, BookingResponseDto::getVersionStamp));
+        return bookings;
+    }
 
+    private static void setNextCursor(HttpServletResponse response, List<BookingResponseDto> bookings, int size) {
+        PageCursor.next(bookings, size, booking -> PageCursor.of(booking.getStart(), booking.getId()))
+                .ifPresent(cursor -> response.setHeader(PageCursor.NEXT_CURSOR_HEADER, cursor));
     }
 
 
@@ -8,6 +8,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utility.EntityTags;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -38,6 +39,8 @@ public class BookingMapper {
                                 .id(booking.getItem().getId())
                                 .name(booking.getItem().getName())
                                 .build())
+                        .versionStamp(EntityTags.versionStamp(booking.getId(), booking.getVersion(),
+                                booking.getItem().getVersion()))
                         .build() : null;
     }
 
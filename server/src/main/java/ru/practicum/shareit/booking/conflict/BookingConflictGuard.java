@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.conflict;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+public interface BookingConflictGuard {
+    void checkAvailable(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    Booking approve(Booking booking);
+}
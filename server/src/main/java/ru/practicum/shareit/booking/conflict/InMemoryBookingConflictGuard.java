@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.conflict;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.JpaBookingRepository;
+import ru.practicum.shareit.exception.BookingConflictException;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "shareit.booking.conflict-guard", havingValue = "memory", matchIfMissing = true)
+public class InMemoryBookingConflictGuard implements BookingConflictGuard {
+    private final JpaBookingRepository bookingRepository;
+    private final int maxItems;
+    private final LinkedHashMap<Long, ItemIntervalIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+
+    public InMemoryBookingConflictGuard(JpaBookingRepository bookingRepository,
+                                        @Value("${shareit.booking.conflict-guard.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.maxItems = maxItems;
+    }
+
+    @Override
+    public void checkAvailable(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (getIndex(itemId).overlaps(start, end)) {
+            throw conflict();
+        }
+    }
+
+    @Override
+    public Booking approve(Booking booking) {
+        ItemIntervalIndex index = getIndex(booking.getItem().getId());
+        if (!index.tryAdd(booking.getStart(), booking.getEnd())) {
+            throw conflict();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // до фиксации транзакции одобрение есть только в памяти, поэтому индекс нельзя вытеснять
+            index.hold();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        index.remove(booking.getStart(), booking.getEnd());
+                    }
+                    index.release();
+                }
+            });
+        }
+        booking.setStatus(BookingStatus.APPROVED);
+        return bookingRepository.save(booking);
+    }
+
+    synchronized int size() {
+        return indexes.size();
+    }
+
+    private ItemIntervalIndex getIndex(Long itemId) {
+        ItemIntervalIndex index = get(itemId);
+        if (index != null) {
+            return index;
+        }
+        ItemIntervalIndex loaded = new ItemIntervalIndex();
+        bookingRepository.findPeriodsByItemIdAndStatus(itemId, BookingStatus.APPROVED)
+                .forEach(period -> loaded.add(period.getStart(), period.getEnd()));
+        return putIfAbsent(itemId, loaded);
+    }
+
+    private synchronized ItemIntervalIndex get(Long itemId) {
+        return indexes.get(itemId);
+    }
+
+    private synchronized ItemIntervalIndex putIfAbsent(Long itemId, ItemIntervalIndex loaded) {
+        ItemIntervalIndex index = indexes.putIfAbsent(itemId, loaded);
+        if (index != null) {
+            return index;
+        }
+        Iterator<Map.Entry<Long, ItemIntervalIndex>> iterator = indexes.entrySet().iterator();
+        while (indexes.size() > maxItems && iterator.hasNext()) {
+            Map.Entry<Long, ItemIntervalIndex> eldest = iterator.next();
+            if (!eldest.getKey().equals(itemId) && !eldest.getValue().isPending()) {
+                iterator.remove();
+            }
+        }
+        return loaded;
+    }
+
+    private BookingConflictException conflict() {
+        return new BookingConflictException("Вещь уже забронирована на пересекающийся период");
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking.conflict;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+class ItemIntervalIndex {
+    private final TreeMap<LocalDateTime, LocalDateTime> intervals = new TreeMap<>();
+    private int pending;
+
+    synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, LocalDateTime> previous = intervals.lowerEntry(end);
+        return previous != null && previous.getValue().isAfter(start);
+    }
+
+    synchronized boolean tryAdd(LocalDateTime start, LocalDateTime end) {
+        if (overlaps(start, end)) {
+            return false;
+        }
+        intervals.put(start, end);
+        return true;
+    }
+
+    synchronized void add(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime mergedStart = start;
+        LocalDateTime mergedEnd = end;
+        Map.Entry<LocalDateTime, LocalDateTime> entry = intervals.lowerEntry(end);
+        while (entry != null && entry.getValue().isAfter(mergedStart)) {
+            if (entry.getKey().isBefore(mergedStart)) {
+                mergedStart = entry.getKey();
+            }
+            if (entry.getValue().isAfter(mergedEnd)) {
+                mergedEnd = entry.getValue();
+            }
+            intervals.remove(entry.getKey());
+            entry = intervals.lowerEntry(mergedEnd);
+        }
+        intervals.put(mergedStart, mergedEnd);
+    }
+
+    synchronized void remove(LocalDateTime start, LocalDateTime end) {
+        intervals.remove(start, end);
+    }
+
+    synchronized void hold() {
+        pending++;
+    }
+
+    synchronized void release() {
+        pending--;
+    }
+
+    synchronized boolean isPending() {
+        return pending > 0;
+    }
+
+    synchronized int size() {
+        return intervals.size();
+    }
+}
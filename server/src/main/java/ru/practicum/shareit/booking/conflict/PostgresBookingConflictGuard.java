@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.conflict;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.JpaBookingRepository;
+import ru.practicum.shareit.exception.BookingConflictException;
+
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.conflict-guard", havingValue = "postgres")
+public class PostgresBookingConflictGuard implements BookingConflictGuard {
+    private static final String OVERLAP_CONSTRAINT = "ex_bookings_approved_overlap";
+
+    private final JpaBookingRepository bookingRepository;
+
+    @Override
+    public void checkAvailable(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingRepository.existsOverlapping(itemId, BookingStatus.APPROVED, start, end)) {
+            throw conflict();
+        }
+    }
+
+    @Override
+    public Booking approve(Booking booking) {
+        checkAvailable(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+        booking.setStatus(BookingStatus.APPROVED);
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (cause == null || !cause.toLowerCase().contains(OVERLAP_CONSTRAINT)) {
+                throw e;
+            }
+            throw conflict();
+        }
+    }
+
+    private BookingConflictException conflict() {
+        return new BookingConflictException("Вещь уже забронирована на пересекающийся период");
+    }
+}
@@ -19,6 +19,7 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 @Data
@@ -46,4 +47,6 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(length = 64)
     private BookingStatus status;
+    @Version
+    private Long version;
 }
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.utility.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingKeysetRepository {
+    List<Booking> findAllByBookerIdAndStateAfter(Long bookerId, BookingState state, LocalDateTime now,
+                                                 PageCursor cursor, Pageable pageable);
+
+    List<Booking> findAllByItemOwnerIdAndStateAfter(Long ownerId, BookingState state, LocalDateTime now,
+                                                    PageCursor cursor, Pageable pageable);
+
+    List<BookingVersion> findVersionsByBookerIdAndState(Long bookerId, BookingState state, LocalDateTime now,
+                                                        PageCursor cursor, Pageable pageable);
+
+    List<BookingVersion> findVersionsByItemOwnerIdAndState(Long ownerId, BookingState state, LocalDateTime now,
+                                                           PageCursor cursor, Pageable pageable);
+}
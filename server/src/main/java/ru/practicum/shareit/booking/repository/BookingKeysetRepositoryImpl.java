@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.utility.PageCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingKeysetRepositoryImpl implements BookingKeysetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findAllByBookerIdAndStateAfter(Long bookerId, BookingState state, LocalDateTime now,
+                                                        PageCursor cursor, Pageable pageable) {
+        return findAllByStateAfter(false, bookerId, state, now, cursor, pageable);
+    }
+
+    @Override
+    public List<Booking> findAllByItemOwnerIdAndStateAfter(Long ownerId, BookingState state, LocalDateTime now,
+                                                           PageCursor cursor, Pageable pageable) {
+        return findAllByStateAfter(true, ownerId, state, now, cursor, pageable);
+    }
+
+    @Override
+    public List<BookingVersion> findVersionsByBookerIdAndState(Long bookerId, BookingState state, LocalDateTime now,
+                                                               PageCursor cursor, Pageable pageable) {
+        return findVersionsByState(false, bookerId, state, now, cursor, pageable);
+    }
+
+    @Override
+    public List<BookingVersion> findVersionsByItemOwnerIdAndState(Long ownerId, BookingState state,
+                                                                  LocalDateTime now, PageCursor cursor,
+                                                                  Pageable pageable) {
+        return findVersionsByState(true, ownerId, state, now, cursor, pageable);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Booking> findAllByStateAfter(boolean byOwner, Long userId, BookingState state, LocalDateTime now,
+                                              PageCursor cursor, Pageable pageable) {
+        CriteriaQuery<Booking> query = entityManager.getCriteriaBuilder().createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = (Join<Booking, Item>) booking.<Booking, Item>fetch("item");
+        booking.fetch("booker");
+        query.select(booking);
+        return getPage(query, booking, item, byOwner, userId, state, now, cursor, pageable);
+    }
+
+    private List<BookingVersion> findVersionsByState(boolean byOwner, Long userId, BookingState state,
+                                                     LocalDateTime now, PageCursor cursor, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingVersion> query = cb.createQuery(BookingVersion.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        query.select(cb.construct(BookingVersion.class, booking.get("id"), booking.get("version"),
+                item.get("version")));
+        return getPage(query, booking, item, byOwner, userId, state, now, cursor, pageable);
+    }
+
+    private <T> List<T> getPage(CriteriaQuery<T> query, Root<Booking> booking, Join<Booking, Item> item,
+                                boolean byOwner, Long userId, BookingState state, LocalDateTime now,
+                                PageCursor cursor, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(byOwner ? cb.equal(item.get("owner").get("id"), userId)
+                : cb.equal(booking.get("booker").get("id"), userId));
+        switch (state) {
+            case ALL:
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case CURRENT:
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                break;
+            default:
+                throw new IllegalArgumentException("Неверный статус");
+        }
+        if (cursor != null) {
+            predicates.add(cb.or(cb.lessThan(start, cursor.getTimestamp()),
+                    cb.and(cb.equal(start, cursor.getTimestamp()), cb.lessThan(id, cursor.getId()))));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+        TypedQuery<T> page = entityManager.createQuery(query).setMaxResults(pageable.getPageSize());
+        if (cursor == null) {
+            page.setFirstResult((int) pageable.getOffset());
+        }
+        return page.getResultList();
+    }
+}
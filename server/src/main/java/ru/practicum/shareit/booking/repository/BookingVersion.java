@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Value;
+
+@Value
+public class BookingVersion {
+    Long id;
+    Long version;
+    Long itemVersion;
+}
@@ -2,45 +2,93 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.conflict.BookingPeriod;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface JpaBookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerId(Long bookerId, Pageable pageable);
+public interface JpaBookingRepository extends JpaRepository<Booking, Long>, BookingKeysetRepository {
+    @Query("select b from Booking as b join fetch b.item as i join fetch b.booker as u " +
+            "where b.booker.id = :bookerId")
+    List<Booking> findAllByBookerId(@Param("bookerId") Long bookerId, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime before,
-                                                             LocalDateTime after, Pageable pageable);
+    @Query("select b from Booking as b join fetch b.item as i join fetch b.booker as u " +
+            "where b.booker.id = :bookerId and b.start < :before and b.end > :after")
+    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(@Param("bookerId") Long bookerId,
+                                                             @Param("before") LocalDateTime before,
+                                                             @Param("after") LocalDateTime after, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndEndBefore(Long bookerId, LocalDateTime now, Pageable pageable);
+    @Query("select b from Booking as b join fetch b.item as i join fetch b.booker as u " +
+            "where b.booker.id = :bookerId and b.end < :now")
+    List<Booking> findAllByBookerIdAndEndBefore(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                                Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStartAfter(Long bookerId, LocalDateTime now, Pageable pageable);
+    @Query("select b from Booking as b join fetch b.item as i join fetch b.booker as u " +
+            "where b.booker.id = :bookerId and b.start > :now")
+    List<Booking> findAllByBookerIdAndStartAfter(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                                 Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+    @Query("select b from Booking as b join fetch b.item as i join fetch b.booker as u " +
+            "where b.booker.id = :bookerId and b.status = :status")
+    List<Booking> findAllByBookerIdAndStatus(@Param("bookerId") Long bookerId, @Param("status") BookingStatus status,
+                                             Pageable pageable);
 
-    List<Booking> findAllByItemOwnerId(Long ownerId, Pageable pageable);
+    @Query("select b from Booking as b join fetch b.item as i join fetch b.booker as u " +
+            "where i.owner.id = :ownerId")
+    List<Booking> findAllByItemOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndEndBefore(Long ownerId, LocalDateTime now, Pageable pageable);
+    @Query("select b from Booking as b join fetch b.item as i join fetch b.booker as u " +
+            "where i.owner.id = :ownerId and b.end < :now")
+    List<Booking> findAllByItemOwnerIdAndEndBefore(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                                   Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStartAfter(Long ownerId, LocalDateTime now, Pageable pageable);
+    @Query("select b from Booking as b join fetch b.item as i join fetch b.booker as u " +
+            "where i.owner.id = :ownerId and b.start > :now")
+    List<Booking> findAllByItemOwnerIdAndStartAfter(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                                    Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfter(Long ownerId, LocalDateTime before,
-                                                                LocalDateTime after, Pageable pageable);
+    @Query("select b from Booking as b join fetch b.item as i join fetch b.booker as u " +
+            "where i.owner.id = :ownerId and b.start < :before and b.end > :after")
+    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfter(@Param("ownerId") Long ownerId,
+                                                                @Param("before") LocalDateTime before,
+                                                                @Param("after") LocalDateTime after, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
+    @Query("select b from Booking as b join fetch b.item as i join fetch b.booker as u " +
+            "where i.owner.id = :ownerId and b.status = :status")
+    List<Booking> findAllByItemOwnerIdAndStatus(@Param("ownerId") Long ownerId, @Param("status") BookingStatus status,
+                                                Pageable pageable);
 
-    List<Booking> findAllByItemInAndStatusAndStartBeforeAndStartNotOrderByItemIdAscStartDesc(List<Item> items,
-                                                                                             BookingStatus status,
-                                                                                             LocalDateTime before,
-                                                                                             LocalDateTime now);
+    @Query(value = "select b.id, b.start_date, b.end_date, b.item_id, b.booker_id, b.status, b.version " +
+            "from (select bk.*, row_number() over (" +
+            "partition by bk.item_id, bk.start_date > :now " +
+            "order by case when bk.start_date > :now then bk.start_date end asc, bk.start_date desc) as rn " +
+            "from bookings as bk " +
+            "where bk.item_id in (:itemIds) and bk.status = 'APPROVED' and bk.start_date <> :now) as b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<Booking> findLastAndNextApprovedByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                                    @Param("now") LocalDateTime now);
 
-    List<Booking> findAllByItemInAndStatusAndStartAfterOrderByItemIdAscStartAsc(List<Item> items, BookingStatus status,
-                                                                                LocalDateTime after);
+    @Query("select b from Booking as b join fetch b.item join fetch b.booker " +
+            "where b.id = (select min(bk.id) from Booking as bk " +
+            "where bk.booker.id = :userId and bk.item.id = :itemId and bk.status = :status and bk.end < :now)")
+    Optional<Booking> findFirstByBookerIdAndItemIdAndStatusAndEndBefore(@Param("userId") Long userId,
+                                                                        @Param("itemId") Long itemId,
+                                                                        @Param("status") BookingStatus status,
+                                                                        @Param("now") LocalDateTime now);
 
-    Optional<Booking> findFirstByBookerIdAndItemIdAndStatusAndEndBefore(Long userId, Long itemId,
-                                                                        BookingStatus approved, LocalDateTime now);
+    @Query("select case when count(b) > 0 then true else false end from Booking as b " +
+            "where b.item.id = :itemId and b.status = :status and b.start < :end and b.end > :start")
+    boolean existsOverlapping(@Param("itemId") Long itemId, @Param("status") BookingStatus status,
+                              @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("select b.start as start, b.end as end from Booking as b " +
+            "where b.item.id = :itemId and b.status = :status")
+    List<BookingPeriod> findPeriodsByItemIdAndStatus(@Param("itemId") Long itemId,
+                                                     @Param("status") BookingStatus status);
 }
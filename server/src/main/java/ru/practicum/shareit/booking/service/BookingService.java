@@ -14,5 +14,17 @@ public interface BookingService {
 
     List<BookingResponseDto> findAllBookingByUserIdAndState(Long userId, String state, int from, int size);
 
+    List<BookingResponseDto> findAllBookingByUserIdAndState(Long userId, String state, String cursor, int size);
+
+    String getEntityTagByUserIdAndState(Long userId, String state, int from, int size);
+
+    String getEntityTagByUserIdAndState(Long userId, String state, String cursor, int size);
+
     List<BookingResponseDto> findAllBookingByOwnerIdAndState(Long ownerId, String state, int from, int size);
+
+    List<BookingResponseDto> findAllBookingByOwnerIdAndState(Long ownerId, String state, String cursor, int size);
+
+    String getEntityTagByOwnerIdAndState(Long ownerId, String state, int from, int size);
+
+    String getEntityTagByOwnerIdAndState(Long ownerId, String state, String cursor, int size);
 }
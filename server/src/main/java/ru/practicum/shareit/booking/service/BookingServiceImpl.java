@@ -6,12 +6,16 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.conflict.BookingConflictGuard;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingVersion;
 import ru.practicum.shareit.booking.repository.JpaBookingRepository;
+import ru.practicum.shareit.change.ChangeNotifier;
+import ru.practicum.shareit.change.ChangeType;
 import ru.practicum.shareit.exception.DataAlreadyExistException;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -19,6 +23,9 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.JpaItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.JpaUserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+import ru.practicum.shareit.utility.EntityTags;
+import ru.practicum.shareit.utility.PageCursor;
 import ru.practicum.shareit.utility.PageUtils;
 
 import java.time.LocalDateTime;
@@ -32,6 +39,9 @@ public class BookingServiceImpl implements BookingService {
     private final JpaBookingRepository bookingRepository;
     private final JpaUserRepository userRepository;
     private final JpaItemRepository itemRepository;
+    private final BookingConflictGuard conflictGuard;
+    private final UserExistenceCache userCache;
+    private final ChangeNotifier changeNotifier;
 
     @Override
     @Transactional
@@ -39,6 +49,7 @@ public class BookingServiceImpl implements BookingService {
         User user = validateIfUserNotExist(userId);
         Item item = validateIfItemNotExist(bookingDto.getItemId());
         validateAddBooking(bookingDto, user, item);
+        conflictGuard.checkAvailable(item.getId(), bookingDto.getStart(), bookingDto.getEnd());
         Booking booking = BookingMapper.toBooking(bookingDto, user, item);
         booking.setStatus(BookingStatus.WAITING);
         return BookingMapper.toBookingResponseDto(bookingRepository.save(booking));
@@ -54,14 +65,19 @@ public class BookingServiceImpl implements BookingService {
         if (!ownerId.equals(booking.getItem().getOwner().getId())) {
             throw new DataNotFoundException("Подтверждать запрос может только владелец");
         }
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        if (approved) {
+            Booking approvedBooking = conflictGuard.approve(booking);
+            changeNotifier.publish(ChangeType.ITEM, approvedBooking.getItem().getId());
+            return BookingMapper.toBookingResponseDto(approvedBooking);
+        }
+        booking.setStatus(BookingStatus.REJECTED);
         return BookingMapper.toBookingResponseDto(bookingRepository.save(booking));
     }
 
     @Override
     public BookingResponseDto findBookingById(Long userId, Long bookingId) {
         Booking booking = validateIfBookingExist(bookingId);
-        validateIfUserNotExist(userId);
+        userCache.validateExists(userId);
         if (!userId.equals(booking.getBooker().getId()) && !userId.equals(booking.getItem().getOwner().getId())) {
             throw new DataNotFoundException("Пользователь не является автором бронирования или создателем вещи");
         }
@@ -70,8 +86,8 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingResponseDto> findAllBookingByUserIdAndState(Long userId, String state, int from, int size) {
-        validateIfUserNotExist(userId);
-        Pageable pageable = PageUtils.getPageable(from, size, Sort.by(Sort.Direction.DESC, "start"));
+        userCache.validateExists(userId);
+        Pageable pageable = PageUtils.getPageable(from, size, Sort.by(Sort.Direction.DESC, "start", "id"));
         switch (BookingState.valueOf(state)) {
             case ALL:
                 return BookingMapper.toBookingResponseDtoList(
@@ -107,11 +123,40 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    public List<BookingResponseDto> findAllBookingByUserIdAndState(Long userId, String state, String cursor, int size) {
+        userCache.validateExists(userId);
+        BookingState bookingState = BookingState.valueOf(state);
+        PageCursor pageCursor = PageCursor.decodeWithTimestamp(cursor);
+        Pageable pageable = PageUtils.getKeysetPageable(size, null);
+        return BookingMapper.toBookingResponseDtoList(bookingRepository.findAllByBookerIdAndStateAfter(userId,
+                bookingState, LocalDateTime.now(), pageCursor, pageable));
+    }
+
+    @Override
+    public String getEntityTagByUserIdAndState(Long userId, String state, int from, int size) {
+        userCache.validateExists(userId);
+        BookingState bookingState = BookingState.valueOf(state);
+        Pageable pageable = PageUtils.getPageable(from, size);
+        return getEntityTag(bookingRepository.findVersionsByBookerIdAndState(userId, bookingState,
+                LocalDateTime.now(), null, pageable));
+    }
+
+    @Override
+    public String getEntityTagByUserIdAndState(Long userId, String state, String cursor, int size) {
+        userCache.validateExists(userId);
+        BookingState bookingState = BookingState.valueOf(state);
+        PageCursor pageCursor = PageCursor.decodeWithTimestamp(cursor);
+        Pageable pageable = PageUtils.getKeysetPageable(size, null);
+        return getEntityTag(bookingRepository.findVersionsByBookerIdAndState(userId, bookingState,
+                LocalDateTime.now(), pageCursor, pageable));
+    }
+
     @Override
     public List<BookingResponseDto> findAllBookingByOwnerIdAndState(Long ownerId, String state, int from, int size) {
-        validateIfUserNotExist(ownerId);
-        Pageable pageable = PageUtils.getPageable(from, size, Sort.by(Sort.Direction.DESC, "start"));
-        if (itemRepository.findAllByOwnerId(ownerId).isEmpty()) {
+        userCache.validateExists(ownerId);
+        Pageable pageable = PageUtils.getPageable(from, size, Sort.by(Sort.Direction.DESC, "start", "id"));
+        if (!itemRepository.existsByOwnerId(ownerId)) {
             throw new DataNotFoundException("У владельца нет ни одной вещи");
         }
         switch (BookingState.valueOf(state)) {
@@ -149,6 +194,50 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    public List<BookingResponseDto> findAllBookingByOwnerIdAndState(Long ownerId, String state, String cursor,
+                                                                    int size) {
+        userCache.validateExists(ownerId);
+        if (!itemRepository.existsByOwnerId(ownerId)) {
+            throw new DataNotFoundException("У владельца нет ни одной вещи");
+        }
+        BookingState bookingState = BookingState.valueOf(state);
+        PageCursor pageCursor = PageCursor.decodeWithTimestamp(cursor);
+        Pageable pageable = PageUtils.getKeysetPageable(size, null);
+        return BookingMapper.toBookingResponseDtoList(bookingRepository.findAllByItemOwnerIdAndStateAfter(ownerId,
+                bookingState, LocalDateTime.now(), pageCursor, pageable));
+    }
+
+    @Override
+    public String getEntityTagByOwnerIdAndState(Long ownerId, String state, int from, int size) {
+        userCache.validateExists(ownerId);
+        Pageable pageable = PageUtils.getPageable(from, size);
+        if (!itemRepository.existsByOwnerId(ownerId)) {
+            throw new DataNotFoundException("У владельца нет ни одной вещи");
+        }
+        BookingState bookingState = BookingState.valueOf(state);
+        return getEntityTag(bookingRepository.findVersionsByItemOwnerIdAndState(ownerId, bookingState,
+                LocalDateTime.now(), null, pageable));
+    }
+
+    @Override
+    public String getEntityTagByOwnerIdAndState(Long ownerId, String state, String cursor, int size) {
+        userCache.validateExists(ownerId);
+        if (!itemRepository.existsByOwnerId(ownerId)) {
+            throw new DataNotFoundException("У владельца нет ни одной вещи");
+        }
+        BookingState bookingState = BookingState.valueOf(state);
+        PageCursor pageCursor = PageCursor.decodeWithTimestamp(cursor);
+        Pageable pageable = PageUtils.getKeysetPageable(size, null);
+        return getEntityTag(bookingRepository.findVersionsByItemOwnerIdAndState(ownerId, bookingState,
+                LocalDateTime.now(), pageCursor, pageable));
+    }
+
+    private static String getEntityTag(List<BookingVersion> bookings) {
+        return EntityTags.of(bookings, booking -> EntityTags.versionStamp(booking.getId(), booking.getVersion(),
+                booking.getItemVersion()));
+    }
+
     private User validateIfUserNotExist(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new DataNotFoundException("Пользователь не найден"));
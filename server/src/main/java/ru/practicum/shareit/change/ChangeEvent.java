@@ -0,0 +1,11 @@
+package ru.practicum.shareit.change;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ChangeEvent {
+    private ChangeType type;
+    private Long id;
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.change;
+
+public enum ChangeType {
+    USER,
+    ITEM,
+    REQUEST
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.execution;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.booking.conflict.BookingConflictGuard;
+import ru.practicum.shareit.booking.conflict.InMemoryBookingConflictGuard;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+
+/**
+ * Экземпляры сервера делят только базу, поэтому в кластере нельзя держать поисковый индекс и блокировки бронирований
+ * в памяти. Кэш пользователей в этом режиме отключает UserExistenceCache.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.cluster.enabled", havingValue = "true")
+public class ClusterConfig {
+
+    public ClusterConfig(ItemSearchEngine searchEngine, BookingConflictGuard conflictGuard) {
+        if (searchEngine instanceof InMemoryItemSearchEngine) {
+            throw new IllegalStateException("Поиск вещей в памяти не работает с несколькими экземплярами сервера, "
+                    + "задайте shareit.search.engine=postgres");
+        }
+        if (conflictGuard instanceof InMemoryBookingConflictGuard) {
+            throw new IllegalStateException("Блокировка бронирований в памяти не работает с несколькими "
+                    + "экземплярами сервера, задайте shareit.booking.conflict-guard=postgres");
+        }
+        log.info("Режим кластера: поиск и блокировка бронирований в PostgreSQL, кэш пользователей отключён");
+    }
+}
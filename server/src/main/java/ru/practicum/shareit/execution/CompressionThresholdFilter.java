@@ -0,0 +1,118 @@
+package ru.practicum.shareit.execution;
+
+import org.springframework.boot.web.server.Compression;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Ответы JSON и Smile короче min-response-size уходят с Content-Length и без gzip: сброс буфера конвертером
+ * откладывается до конца ответа.
+ */
+public class CompressionThresholdFilter implements Filter {
+    private final int minResponseSize;
+    private final List<MimeType> mimeTypes;
+
+    public CompressionThresholdFilter(Compression compression) {
+        this.minResponseSize = (int) compression.getMinResponseSize().toBytes();
+        this.mimeTypes = Arrays.stream(compression.getMimeTypes())
+                .map(MimeTypeUtils::parseMimeType)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        if (request.getDispatcherType() != DispatcherType.ERROR && !httpResponse.isCommitted()
+                && httpResponse.getBufferSize() < minResponseSize) {
+            httpResponse.setBufferSize(minResponseSize);
+        }
+        chain.doFilter(request, new ThresholdResponse(httpResponse));
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MimeType mimeType = MimeTypeUtils.parseMimeType(contentType);
+        return mimeTypes.stream().anyMatch(candidate -> candidate.isCompatibleWith(mimeType));
+    }
+
+    private class ThresholdResponse extends HttpServletResponseWrapper {
+        private ServletOutputStream outputStream;
+
+        ThresholdResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new ThresholdOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (!isCompressible(getContentType())) {
+                super.flushBuffer();
+            }
+        }
+
+        private class ThresholdOutputStream extends ServletOutputStream {
+            private final ServletOutputStream delegate;
+
+            ThresholdOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                delegate.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                delegate.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (!isCompressible(getContentType())) {
+                    delegate.flush();
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,12 +11,16 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.utility.EntityTags;
+import ru.practicum.shareit.utility.PageCursor;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.List;
 
@@ -37,15 +42,34 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemWithBookingDto getById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId) {
-        return itemService.getById(userId, itemId);
+    public ItemWithBookingDto getById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId,
+                                      HttpServletResponse response, WebRequest request) {
+        if (EntityTags.isConditional(request) && request.checkNotModified(itemService.getEntityTag(userId, itemId))) {
+            return null;
+        }
+        ItemWithBookingDto item = itemService.getById(userId, itemId);
+        response.setHeader(HttpHeaders.ETAG, EntityTags.of(List.of(item), ItemWithBookingDto::getVersionStamp));
+        return item;
     }
 
     @GetMapping
     public List<ItemWithBookingDto> getAllItems(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                 @RequestParam(defaultValue = "0") int from,
-                                                @RequestParam(defaultValue = "10") int size) {
-        return itemService.getAllItems(userId, from, size);
+                                                @RequestParam(defaultValue = "10") int size,
+                                                @RequestParam(required = false) String cursor,
+                                                HttpServletResponse response, WebRequest request) {
+        if (EntityTags.isConditional(request) && request.checkNotModified(cursor != null
+                ? itemService.getAllItemsEntityTag(userId, cursor, size)
+                : itemService.getAllItemsEntityTag(userId, from, size))) {
+            return null;
+        }
+        List<ItemWithBookingDto> items = cursor != null
+                ? itemService.getAllItems(userId, cursor, size)
+                : itemService.getAllItems(userId, from, size);
+        PageCursor.next(items, size, item -> PageCursor.of(item.getId()))
+                .ifPresent(next -> response.setHeader(PageCursor.NEXT_CURSOR_HEADER, next));
+        response.setHeader(HttpHeaders.ETAG, EntityTags.of(items, ItemWithBookingDto::getVersionStamp));
+        return items;
     }
 
     @GetMapping("/search")
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import ru.practicum.shareit.booking.dto.BookingResponseShortDto;
 
 import javax.validation.constraints.NotBlank;
@@ -25,4 +28,9 @@ public class ItemWithBookingDto {
     private BookingResponseShortDto nextBooking;
 
     private List<CommentResponseDto> comments;
+
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String versionStamp;
 }
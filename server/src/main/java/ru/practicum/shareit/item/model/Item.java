@@ -17,6 +17,7 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 @Data
 @Builder(toBuilder = true)
@@ -42,4 +43,6 @@ public class Item {
     @JoinColumn(name = "request_id ")
     @ToString.Exclude
     private ItemRequest request;
+    @Version
+    private Long version;
 }
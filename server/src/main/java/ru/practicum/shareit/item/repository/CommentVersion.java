@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.repository;
+
+public interface CommentVersion {
+    Long getItemId();
+
+    Long getId();
+
+    Long getAuthorVersion();
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.repository;
+
+public interface ItemVersion {
+    Long getRequestId();
+
+    Long getId();
+
+    Long getVersion();
+}
@@ -1,11 +1,19 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 public interface JpaCommentRepository extends JpaRepository<Comment, Long> {
-    Optional<List<Comment>> findAllByItemId(Long itemId);
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findAllByItemIdInOrderByIdAsc(Collection<Long> itemIds);
+
+    @Query("select c.item.id as itemId, c.id as id, a.version as authorVersion " +
+            "from Comment as c join c.author as a where c.item.id in :itemIds order by c.id")
+    List<CommentVersion> findVersionsByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
@@ -3,22 +3,41 @@ package ru.practicum.shareit.item.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface JpaItemRepository extends JpaRepository<Item, Long> {
-    @Query("select i " +
-            "from Item as i " +
-            "where i.available = true and " +
-            "(lower(i.name) like lower(concat('%', ?1, '%') ) or " +
-            "lower(i.description) like lower(concat('%', ?1, '%') ))")
-    List<Item> searchItems(String text, Pageable pageable);
+    @Query(value = "select i.* " +
+            "from items as i " +
+            "where i.is_available = true and " +
+            "(lower(i.name) like '%' || lower(:text) || '%' or " +
+            "lower(i.description) like '%' || lower(:text) || '%') " +
+            "order by ts_rank(to_tsvector('simple', i.name || ' ' || i.description), " +
+            "plainto_tsquery('simple', :text)) desc, " +
+            "similarity(lower(i.name), lower(:text)) desc, i.id", nativeQuery = true)
+    List<Item> searchItemsRanked(@Param("text") String text, Pageable pageable);
 
     List<Item> findAllByOwnerId(Long ownerId, Pageable pageable);
 
+    List<Item> findAllByOwnerIdAndIdGreaterThan(Long ownerId, Long id, Pageable pageable);
+
     List<Item> findAllByRequestInOrderByIdAsc(List<ItemRequest> requests);
 
-    List<Item> findAllByOwnerId(Long ownerId);
+    boolean existsByOwnerId(Long ownerId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select i from Item as i")
+    Stream<Item> streamAll();
+
+    @Query("select i.request.id as requestId, i.id as id, i.version as version from Item as i " +
+            "where i.request in :requests order by i.id")
+    List<ItemVersion> findVersionsByRequestIn(@Param("requests") List<ItemRequest> requests);
 }
@@ -0,0 +1,263 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.JpaItemRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM_LENGTH = 3;
+    private static final long[] EMPTY = new long[0];
+
+    private final JpaItemRepository itemRepository;
+    private final EntityManager entityManager;
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final Map<String, LongPostingList> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Timer searchTimer;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public InMemoryItemSearchEngine(JpaItemRepository itemRepository, EntityManager entityManager,
+                                    MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.entityManager = entityManager;
+        this.searchTimer = Timer.builder("shareit.search.latency")
+                .description("Время поиска вещей по индексу")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.hitCounter = Counter.builder("shareit.search.requests").tag("result", "hit").register(meterRegistry);
+        this.missCounter = Counter.builder("shareit.search.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("shareit.search.index.documents", this, InMemoryItemSearchEngine::documentCount)
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.grams", this, InMemoryItemSearchEngine::gramCount)
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.memory", this, InMemoryItemSearchEngine::sizeInBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try (Stream<Item> items = itemRepository.streamAll()) {
+            items.forEach(item -> {
+                apply(item);
+                entityManager.detach(item);
+            });
+        }
+        log.info("Индекс поиска вещей построен, проиндексировано {} вещей, размер {} байт",
+                documentCount(), sizeInBytes());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        List<Long> ids = searchTimer.record(() -> findIds(text.toLowerCase(), pageable));
+        (ids.isEmpty() ? missCounter : hitCounter).increment();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream().map(items::get).filter(item -> item != null && item.getAvailable())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(item);
+                }
+            });
+        } else {
+            apply(item);
+        }
+    }
+
+    private List<Long> findIds(String query, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            List<IndexedItem> found = new ArrayList<>();
+            if (query.length() < GRAM_LENGTH) {
+                documents.values().forEach(document -> addIfMatches(found, document, query));
+            } else {
+                for (long id : candidates(query)) {
+                    addIfMatches(found, documents.get(id), query);
+                }
+            }
+            return found.stream()
+                    .sorted(Comparator.comparingInt((IndexedItem document) -> document.score(query)).reversed()
+                            .thenComparingLong(IndexedItem::getId))
+                    .skip(pageable.getOffset())
+                    .limit(pageable.getPageSize())
+                    .map(IndexedItem::getId)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addIfMatches(List<IndexedItem> found, IndexedItem document, String query) {
+        if (document != null && document.isAvailable() && document.score(query) > 0) {
+            found.add(document);
+        }
+    }
+
+    private long[] candidates(String query) {
+        List<LongPostingList> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            LongPostingList list = postings.get(gram);
+            if (list == null) {
+                return EMPTY;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(LongPostingList::size));
+        long[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = lists.get(i).retainAll(result);
+        }
+        return result;
+    }
+
+    private void apply(Item item) {
+        IndexedItem document = new IndexedItem(item);
+        lock.writeLock().lock();
+        try {
+            IndexedItem previous = documents.put(document.getId(), document);
+            Set<String> grams = grams(document.getText());
+            if (previous != null) {
+                for (String gram : grams(previous.getText())) {
+                    if (!grams.contains(gram)) {
+                        removePosting(gram, document.getId());
+                    }
+                }
+            }
+            grams.forEach(gram -> postings.computeIfAbsent(gram, key -> new LongPostingList()).add(document.getId()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removePosting(String gram, long id) {
+        LongPostingList list = postings.get(gram);
+        if (list != null) {
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private double documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double gramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long size = 0;
+            for (Map.Entry<String, LongPostingList> entry : postings.entrySet()) {
+                size += 2L * entry.getKey().length() + entry.getValue().sizeInBytes();
+            }
+            for (IndexedItem document : documents.values()) {
+                size += 2L * document.getText().length();
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static class IndexedItem {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final String text;
+        private final boolean available;
+
+        IndexedItem(Item item) {
+            this.id = item.getId();
+            this.name = item.getName().toLowerCase();
+            this.description = item.getDescription().toLowerCase();
+            this.text = name + "\n" + description;
+            this.available = Boolean.TRUE.equals(item.getAvailable());
+        }
+
+        long getId() {
+            return id;
+        }
+
+        boolean isAvailable() {
+            return available;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        int score(String query) {
+            int score = 0;
+            if (name.contains(query)) {
+                score += name.equals(query) ? 4 : name.startsWith(query) ? 3 : 2;
+            }
+            if (description.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+    }
+}
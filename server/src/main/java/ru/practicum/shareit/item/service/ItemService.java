@@ -14,8 +14,16 @@ public interface ItemService {
 
     ItemWithBookingDto getById(Long userId, Long itemId);
 
+    String getEntityTag(Long userId, Long itemId);
+
     List<ItemWithBookingDto> getAllItems(Long userId, int from, int size);
 
+    List<ItemWithBookingDto> getAllItems(Long userId, String cursor, int size);
+
+    String getAllItemsEntityTag(Long userId, int from, int size);
+
+    String getAllItemsEntityTag(Long userId, String cursor, int size);
+
     List<ItemDto> searchItems(Long userId, String text, int from, int size);
 
     CommentResponseDto addComment(Long userId, CommentRequestDto commentDto, Long itemId);
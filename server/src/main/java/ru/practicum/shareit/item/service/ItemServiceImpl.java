@@ -3,11 +3,14 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.JpaBookingRepository;
+import ru.practicum.shareit.change.ChangeNotifier;
+import ru.practicum.shareit.change.ChangeType;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.CommentMapper;
@@ -18,17 +21,23 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentVersion;
 import ru.practicum.shareit.item.repository.JpaCommentRepository;
 import ru.practicum.shareit.item.repository.JpaItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.JpaItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.JpaUserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+import ru.practicum.shareit.utility.EntityTags;
+import ru.practicum.shareit.utility.PageCursor;
 import ru.practicum.shareit.utility.PageUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -45,6 +54,9 @@ public class ItemServiceImpl implements ItemService {
     private final JpaBookingRepository bookingRepository;
     private final JpaCommentRepository commentRepository;
     private final JpaItemRequestRepository requestRepository;
+    private final ItemSearchEngine searchEngine;
+    private final UserExistenceCache userCache;
+    private final ChangeNotifier changeNotifier;
 
 
     @Override
@@ -59,18 +71,25 @@ public class ItemServiceImpl implements ItemService {
             ItemRequest request = validateIfItemRequestNotExist(requestId);
             item.setRequest(request);
         }
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        searchEngine.index(savedItem);
+        if (requestId != null) {
+            changeNotifier.publish(ChangeType.REQUEST, requestId);
+        }
+        return ItemMapper.toItemDto(savedItem);
     }
 
     @Override
     @Transactional
     public ItemDto update(Long userId, Long itemId, ItemDto itemDto) {
-        validateIfUserNotExist(userId);
+        userCache.validateExists(userId);
         Item item = ItemMapper.toItem(itemDto);
         validateUpdateItem(userId, itemId, item);
         Item savedItem = itemRepository.findById(itemId).get();
+        ItemRequest request = savedItem.getRequest();
         item.setId(savedItem.getId());
         item.setOwner(savedItem.getOwner());
+        item.setVersion(savedItem.getVersion());
         if (item.getName() == null) {
             item.setName(savedItem.getName());
         }
@@ -80,28 +99,45 @@ public class ItemServiceImpl implements ItemService {
         if (item.getAvailable() == null) {
             item.setAvailable(savedItem.getAvailable());
         }
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item updatedItem = itemRepository.save(item);
+        searchEngine.index(updatedItem);
+        changeNotifier.publish(ChangeType.ITEM, itemId);
+        if (request != null) {
+            changeNotifier.publish(ChangeType.REQUEST, request.getId());
+        }
+        return ItemMapper.toItemDto(updatedItem);
     }
 
     @Override
     public ItemWithBookingDto getById(Long userId, Long itemId) {
         Item item = validateIfNotExist(itemId);
-        if (!userId.equals(item.getOwner().getId())) {
-            return setComment(ItemMapper.toItemWithBookingDto(item, null, null));
-        }
-        return getItemWithBookingDtos(Collections.singletonList(item)).get(0);
+        return getItemWithBookingDtos(userId, Collections.singletonList(item)).get(0);
+    }
 
+    @Override
+    public String getEntityTag(Long userId, Long itemId) {
+        Item item = validateIfNotExist(itemId);
+        return getEntityTag(userId, Collections.singletonList(item));
     }
 
     @Override
     public List<ItemWithBookingDto> getAllItems(Long userId, int from, int size) {
-        validateIfUserNotExist(userId);
-        Pageable pageable = PageUtils.getPageable(from, size);
-        List<Item> items = itemRepository.findAllByOwnerId(userId, pageable);
-        if (items.isEmpty()) {
-            throw new DataNotFoundException("Пользователь не является владельцем");
-        }
-        return getItemWithBookingDtos(items);
+        return getItemWithBookingDtos(userId, findOwnerItems(userId, from, size));
+    }
+
+    @Override
+    public List<ItemWithBookingDto> getAllItems(Long userId, String cursor, int size) {
+        return getItemWithBookingDtos(userId, findOwnerItems(userId, cursor, size));
+    }
+
+    @Override
+    public String getAllItemsEntityTag(Long userId, int from, int size) {
+        return getEntityTag(userId, findOwnerItems(userId, from, size));
+    }
+
+    @Override
+    public String getAllItemsEntityTag(Long userId, String cursor, int size) {
+        return getEntityTag(userId, findOwnerItems(userId, cursor, size));
     }
 
     @Override
@@ -110,7 +146,7 @@ public class ItemServiceImpl implements ItemService {
             return new ArrayList<>();
         }
         Pageable pageable = PageUtils.getPageable(from, size);
-        return itemRepository.searchItems(text, pageable).stream()
+        return searchEngine.search(text, pageable).stream()
                 .map(ItemMapper::toItemDto).collect(Collectors.toList());
     }
 
@@ -122,7 +158,9 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new ValidationException("Пользователь не брал в аренду эту вещь " +
                         "или срок аренды еще не закончился"));
         Comment comment = CommentMapper.toComment(commentDto, booking.getBooker(), booking.getItem());
-        return CommentMapper.toCommentDto(commentRepository.save(comment));
+        CommentResponseDto savedComment = CommentMapper.toCommentDto(commentRepository.save(comment));
+        changeNotifier.publish(ChangeType.ITEM, itemId);
+        return savedComment;
     }
 
     private void validateAddItem(Item item) {
@@ -179,29 +217,94 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new DataNotFoundException("Запрос не найден"));
     }
 
-    private List<ItemWithBookingDto> getItemWithBookingDtos(List<Item> items) {
-        List<ItemWithBookingDto> result = new ArrayList<>();
-        List<Booking> lastBookings =
-                bookingRepository.findAllByItemInAndStatusAndStartBeforeAndStartNotOrderByItemIdAscStartDesc(items,
-                        BookingStatus.APPROVED, LocalDateTime.now(), LocalDateTime.now());
-        List<Booking> nextBookings = bookingRepository.findAllByItemInAndStatusAndStartAfterOrderByItemIdAscStartAsc(
-                items, BookingStatus.APPROVED, LocalDateTime.now());
-        Map<Long, List<Booking>> itemIdToLastBookings = lastBookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
-        Map<Long, List<Booking>> itemIdToNextBookings = nextBookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
-        items.forEach(item -> {
-            List<Booking> lasts = itemIdToLastBookings.get(item.getId());
-            List<Booking> nexts = itemIdToNextBookings.get(item.getId());
-            result.add(ItemMapper.toItemWithBookingDto(item, lasts != null && !lasts.isEmpty() ? lasts.get(0) : null,
-                    nexts != null && !nexts.isEmpty() ? nexts.get(0) : null));
+    private List<Item> findOwnerItems(Long userId, int from, int size) {
+        userCache.validateExists(userId);
+        Pageable pageable = PageUtils.getPageable(from, size, Sort.by("id"));
+        List<Item> items = itemRepository.findAllByOwnerId(userId, pageable);
+        if (items.isEmpty()) {
+            throw new DataNotFoundException("Пользователь не является владельцем");
+        }
+        return items;
+    }
+
+    private List<Item> findOwnerItems(Long userId, String cursor, int size) {
+        userCache.validateExists(userId);
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        Pageable pageable = PageUtils.getKeysetPageable(size, Sort.by("id"));
+        List<Item> items = itemRepository.findAllByOwnerIdAndIdGreaterThan(userId, pageCursor.getId(), pageable);
+        if (items.isEmpty() && !itemRepository.existsByOwnerId(userId)) {
+            throw new DataNotFoundException("Пользователь не является владельцем");
+        }
+        return items;
+    }
+
+    private List<ItemWithBookingDto> getItemWithBookingDtos(Long userId, List<Item> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Booking> itemIdToLastBooking = new HashMap<>();
+        Map<Long, Booking> itemIdToNextBooking = new HashMap<>();
+        findLastAndNextBookings(userId, items, itemIdToLastBooking, itemIdToNextBooking);
+        Map<Long, List<Comment>> itemIdToComments = commentRepository.findAllByItemIdInOrderByIdAsc(getIds(items))
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        return items.stream()
+                .map(item -> {
+                    Booking last = itemIdToLastBooking.get(item.getId());
+                    Booking next = itemIdToNextBooking.get(item.getId());
+                    List<Comment> comments = itemIdToComments.getOrDefault(item.getId(), Collections.emptyList());
+                    ItemWithBookingDto itemDto = ItemMapper.toItemWithBookingDto(item, last, next);
+                    itemDto.setComments(CommentMapper.toCommentDtoList(comments));
+                    itemDto.setVersionStamp(getVersionStamp(item, last, next, comments.stream()
+                            .map(comment -> EntityTags.versionStamp(comment.getId(), comment.getAuthor().getVersion()))
+                            .collect(Collectors.toList())));
+                    return itemDto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private String getEntityTag(Long userId, List<Item> items) {
+        if (items.isEmpty()) {
+            return EntityTags.of(List.of());
+        }
+        Map<Long, Booking> itemIdToLastBooking = new HashMap<>();
+        Map<Long, Booking> itemIdToNextBooking = new HashMap<>();
+        findLastAndNextBookings(userId, items, itemIdToLastBooking, itemIdToNextBooking);
+        Map<Long, List<String>> itemIdToComments = commentRepository.findVersionsByItemIdIn(getIds(items)).stream()
+                .collect(Collectors.groupingBy(CommentVersion::getItemId, Collectors.mapping(
+                        comment -> EntityTags.versionStamp(comment.getId(), comment.getAuthorVersion()),
+                        Collectors.toList())));
+        return EntityTags.of(items, item -> getVersionStamp(item, itemIdToLastBooking.get(item.getId()),
+                itemIdToNextBooking.get(item.getId()),
+                itemIdToComments.getOrDefault(item.getId(), Collections.emptyList())));
+    }
+
+    private void findLastAndNextBookings(Long userId, List<Item> items, Map<Long, Booking> itemIdToLastBooking,
+                                         Map<Long, Booking> itemIdToNextBooking) {
+        List<Long> ownItemIds = items.stream()
+                .filter(item -> userId.equals(item.getOwner().getId()))
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        if (ownItemIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.findLastAndNextApprovedByItemIdIn(ownItemIds, now).forEach(booking -> {
+            Map<Long, Booking> target = booking.getStart().isAfter(now) ? itemIdToNextBooking : itemIdToLastBooking;
+            target.put(booking.getItem().getId(), booking);
         });
-        return result.stream().map(this::setComment).collect(Collectors.toList());
     }
 
-    private ItemWithBookingDto setComment(ItemWithBookingDto itemDto) {
-        List<Comment> comments = commentRepository.findAllByItemId(itemDto.getId()).orElse(Collections.emptyList());
-        itemDto.setComments(CommentMapper.toCommentDtoList(comments));
-        return itemDto;
+    private static String getVersionStamp(Item item, Booking last, Booking next, List<String> comments) {
+        return EntityTags.versionStamp(item.getId(), item.getVersion(), getVersionStamp(last), getVersionStamp(next),
+                comments);
+    }
+
+    private static String getVersionStamp(Booking booking) {
+        return booking != null ? EntityTags.versionStamp(booking.getId(), booking.getVersion()) : null;
+    }
+
+    private static List<Long> getIds(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
     }
 }
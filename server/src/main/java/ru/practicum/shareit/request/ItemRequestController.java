@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -9,9 +10,13 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.utility.EntityTags;
+import ru.practicum.shareit.utility.PageCursor;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.List;
 
@@ -28,15 +33,34 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestDto> findAllByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return requestService.findAllByUserId(userId);
+    public List<ItemRequestDto> findAllByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                HttpServletResponse response, WebRequest request) {
+        if (EntityTags.isConditional(request) && request.checkNotModified(requestService.getEntityTagByUserId(userId))) {
+            return null;
+        }
+        List<ItemRequestDto> requests = requestService.findAllByUserId(userId);
+        response.setHeader(HttpHeaders.ETAG, EntityTags.of(requests, ItemRequestDto::getVersionStamp));
+        return requests;
     }
 
     @GetMapping("/all")
     public List<ItemRequestDto> findAll(@RequestHeader("X-Sharer-User-Id") Long userId,
                                         @RequestParam(defaultValue = "0") int from,
-                                        @RequestParam(defaultValue = "10") int size) {
-        return requestService.findAll(userId, from, size);
+                                        @RequestParam(defaultValue = "10") int size,
+                                        @RequestParam(required = false) String cursor,
+                                        HttpServletResponse response, WebRequest request) {
+        if (EntityTags.isConditional(request) && request.checkNotModified(cursor != null
+                ? requestService.getAllEntityTag(userId, cursor, size)
+                : requestService.getAllEntityTag(userId, from, size))) {
+            return null;
+        }
+        List<ItemRequestDto> requests = cursor != null
+                ? requestService.findAll(userId, cursor, size)
+                : requestService.findAll(userId, from, size);
+        PageCursor.next(requests, size, itemRequest -> PageCursor.of(itemRequest.getCreated(), itemRequest.getId()))
+                .ifPresent(next -> response.setHeader(PageCursor.NEXT_CURSOR_HEADER, next));
+        response.setHeader(HttpHeaders.ETAG, EntityTags.of(requests, ItemRequestDto::getVersionStamp));
+        return requests;
     }
 
     @GetMapping("/{id}")
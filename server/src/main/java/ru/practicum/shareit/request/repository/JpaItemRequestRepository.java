@@ -2,13 +2,21 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface JpaItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByRequestorOrderByCreatedDesc(User user);
 
     List<ItemRequest> findAllByRequestorNot(User user, Pageable pageable);
+
+    @Query("select r " +
+            "from ItemRequest as r " +
+            "where r.requestor <> ?1 and " +
+            "(r.created < ?2 or (r.created = ?2 and r.id < ?3))")
+    List<ItemRequest> findAllByRequestorNotAfter(User user, LocalDateTime created, Long id, Pageable pageable);
 }
@@ -9,7 +9,15 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> findAllByUserId(Long userId);
 
+    String getEntityTagByUserId(Long userId);
+
     List<ItemRequestDto> findAll(Long userId, int from, int size);
 
+    List<ItemRequestDto> findAll(Long userId, String cursor, int size);
+
+    String getAllEntityTag(Long userId, int from, int size);
+
+    String getAllEntityTag(Long userId, String cursor, int size);
+
     ItemRequestDto findById(Long userId, Long id);
 }
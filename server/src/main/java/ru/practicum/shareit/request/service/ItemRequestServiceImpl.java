@@ -5,9 +5,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.change.ChangeNotifier;
+import ru.practicum.shareit.change.ChangeType;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemVersion;
 import ru.practicum.shareit.item.repository.JpaItemRepository;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -15,6 +19,9 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.JpaItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.JpaUserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+import ru.practicum.shareit.utility.EntityTags;
+import ru.practicum.shareit.utility.PageCursor;
 import ru.practicum.shareit.utility.PageUtils;
 
 import java.time.LocalDateTime;
@@ -31,6 +38,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final JpaItemRequestRepository requestRepository;
     private final JpaUserRepository userRepository;
     private final JpaItemRepository itemRepository;
+    private final UserExistenceCache userCache;
+    private final ChangeNotifier changeNotifier;
 
     @Override
     @Transactional
@@ -39,31 +48,44 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(requestDto);
         itemRequest.setCreated(LocalDateTime.now());
         itemRequest.setRequestor(user);
-        return ItemRequestMapper.toItemRequestDto(requestRepository.save(itemRequest));
+        ItemRequestDto savedRequest = ItemRequestMapper.toItemRequestDto(requestRepository.save(itemRequest));
+        changeNotifier.publish(ChangeType.REQUEST, savedRequest.getId());
+        return savedRequest;
     }
 
     @Override
     public List<ItemRequestDto> findAllByUserId(Long userId) {
-        User user = validateIfUserNotExist(userId);
-        List<ItemRequest> requests = requestRepository.findAllByRequestorOrderByCreatedDesc(user);
-        List<ItemRequestDto> requestDtos = ItemRequestMapper.toItemRequestDtoList(requests);
-        List<ItemDto> items = ItemMapper.toItemDtoList(itemRepository.findAllByRequestInOrderByIdAsc(requests));
-        return getItemRequestDtosWithItems(requestDtos, items);
+        return getItemRequestDtos(findOwnRequests(userId));
+    }
+
+    @Override
+    public String getEntityTagByUserId(Long userId) {
+        return getEntityTag(findOwnRequests(userId));
     }
 
     @Override
     public List<ItemRequestDto> findAll(Long userId, int from, int size) {
-        User user = validateIfUserNotExist(userId);
-        Pageable pageable = PageUtils.getPageable(from, size, Sort.by(Sort.Direction.DESC, "created"));
-        List<ItemRequest> requests = requestRepository.findAllByRequestorNot(user, pageable);
-        List<ItemRequestDto> requestDtos = ItemRequestMapper.toItemRequestDtoList(requests);
-        List<ItemDto> items = ItemMapper.toItemDtoList(itemRepository.findAllByRequestInOrderByIdAsc(requests));
-        return getItemRequestDtosWithItems(requestDtos, items);
+        return getItemRequestDtos(findOtherRequests(userId, from, size));
+    }
+
+    @Override
+    public List<ItemRequestDto> findAll(Long userId, String cursor, int size) {
+        return getItemRequestDtos(findOtherRequests(userId, cursor, size));
+    }
+
+    @Override
+    public String getAllEntityTag(Long userId, int from, int size) {
+        return getEntityTag(findOtherRequests(userId, from, size));
+    }
+
+    @Override
+    public String getAllEntityTag(Long userId, String cursor, int size) {
+        return getEntityTag(findOtherRequests(userId, cursor, size));
     }
 
     @Override
     public ItemRequestDto findById(Long userId, Long id) {
-        User user = validateIfUserNotExist(userId);
+        userCache.validateExists(userId);
         ItemRequest request = validateIfItemRequestNotExist(id);
         ItemRequestDto requestDto = ItemRequestMapper.toItemRequestDto(request);
         List<ItemDto> items = ItemMapper.toItemDtoList(
@@ -72,6 +94,11 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return requestDto;
     }
 
+    private User getExistingUserReference(Long userId) {
+        userCache.validateExists(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
     private User validateIfUserNotExist(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new DataNotFoundException("Пользователь не найден"));
@@ -83,12 +110,52 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .orElseThrow(() -> new DataNotFoundException("Запрос не найден"));
     }
 
-    private static List<ItemRequestDto> getItemRequestDtosWithItems(List<ItemRequestDto> requests,
-                                                                    List<ItemDto> items) {
-        Map<Long, List<ItemDto>> requestIdToItems = items.stream()
-                .collect(Collectors.groupingBy(ItemDto::getRequestId));
-        requests.forEach(request ->
-                request.setItems(requestIdToItems.getOrDefault(request.getId(), Collections.emptyList())));
-        return requests;
+    private List<ItemRequest> findOwnRequests(Long userId) {
+        User user = getExistingUserReference(userId);
+        return requestRepository.findAllByRequestorOrderByCreatedDesc(user);
+    }
+
+    private List<ItemRequest> findOtherRequests(Long userId, int from, int size) {
+        User user = getExistingUserReference(userId);
+        Pageable pageable = PageUtils.getPageable(from, size, Sort.by(Sort.Direction.DESC, "created", "id"));
+        return requestRepository.findAllByRequestorNot(user, pageable);
+    }
+
+    private List<ItemRequest> findOtherRequests(Long userId, String cursor, int size) {
+        User user = getExistingUserReference(userId);
+        PageCursor pageCursor = PageCursor.decodeWithTimestamp(cursor);
+        Pageable pageable = PageUtils.getKeysetPageable(size, Sort.by(Sort.Direction.DESC, "created", "id"));
+        return requestRepository.findAllByRequestorNotAfter(user, pageCursor.getTimestamp(), pageCursor.getId(),
+                pageable);
+    }
+
+    private List<ItemRequestDto> getItemRequestDtos(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<Item>> requestIdToItems = itemRepository.findAllByRequestInOrderByIdAsc(requests).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+        return requests.stream()
+                .map(request -> {
+                    List<Item> items = requestIdToItems.getOrDefault(request.getId(), Collections.emptyList());
+                    ItemRequestDto requestDto = ItemRequestMapper.toItemRequestDto(request);
+                    requestDto.setItems(ItemMapper.toItemDtoList(items));
+                    requestDto.setVersionStamp(EntityTags.versionStamp(request.getId(), items.stream()
+                            .map(item -> EntityTags.versionStamp(item.getId(), item.getVersion()))
+                            .collect(Collectors.toList())));
+                    return requestDto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private String getEntityTag(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return EntityTags.of(List.of());
+        }
+        Map<Long, List<String>> requestIdToItems = itemRepository.findVersionsByRequestIn(requests).stream()
+                .collect(Collectors.groupingBy(ItemVersion::getRequestId, Collectors.mapping(
+                        item -> EntityTags.versionStamp(item.getId(), item.getVersion()), Collectors.toList())));
+        return EntityTags.of(requests, request -> EntityTags.versionStamp(request.getId(),
+                requestIdToItems.getOrDefault(request.getId(), Collections.emptyList())));
     }
 }
@@ -11,6 +11,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 @Data
 @Builder
@@ -26,4 +27,6 @@ public class User {
     private String name;
     @Column(length = 512, nullable = false, unique = true)
     private String email;
+    @Version
+    private Long version;
 }
@@ -4,4 +4,5 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.user.model.User;
 
 public interface JpaUserRepository extends JpaRepository<User, Long> {
+    boolean existsByEmailAndIdNot(String email, Long id);
 }
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.user.repository.JpaUserRepository;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+@Slf4j
+@Component
+public class UserExistenceCache {
+    private final JpaUserRepository userRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final LinkedHashMap<Long, Long> expirations = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter sizeEvictionCounter;
+    private final Counter expiredEvictionCounter;
+    private final Counter invalidationCounter;
+
+    @Autowired
+    public UserExistenceCache(JpaUserRepository userRepository, MeterRegistry meterRegistry,
+                              @Value("${shareit.user-cache.max-size:10000}") int maxSize,
+                              @Value("${shareit.user-cache.ttl:PT5M}") Duration ttl,
+                              @Value("${shareit.cluster.enabled:false}") boolean cluster) {
+        this(userRepository, meterRegistry, cluster ? 0 : maxSize, ttl, System::nanoTime);
+    }
+
+    UserExistenceCache(JpaUserRepository userRepository, MeterRegistry meterRegistry, int maxSize, Duration ttl,
+                       LongSupplier ticker) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        this.hitCounter = Counter.builder("shareit.user.cache.requests").tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("shareit.user.cache.requests").tag("result", "miss")
+                .register(meterRegistry);
+        this.sizeEvictionCounter = Counter.builder("shareit.user.cache.evictions").tag("cause", "size")
+                .register(meterRegistry);
+        this.expiredEvictionCounter = Counter.builder("shareit.user.cache.evictions").tag("cause", "expired")
+                .register(meterRegistry);
+        this.invalidationCounter = Counter.builder("shareit.user.cache.evictions").tag("cause", "invalidated")
+                .register(meterRegistry);
+        Gauge.builder("shareit.user.cache.size", this, UserExistenceCache::size).register(meterRegistry);
+        Gauge.builder("shareit.user.cache.hit.ratio", this, UserExistenceCache::hitRatio).register(meterRegistry);
+    }
+
+    public void validateExists(Long userId) {
+        if (isCached(userId)) {
+            hitCounter.increment();
+            return;
+        }
+        missCounter.increment();
+        if (!userRepository.existsById(userId)) {
+            log.warn("Пользователь с id={} не найден", userId);
+            throw new DataNotFoundException("Пользователь не найден");
+        }
+        put(userId);
+    }
+
+    public void invalidate(Long userId) {
+        remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(userId);
+                }
+            });
+        }
+    }
+
+    private synchronized boolean isCached(Long userId) {
+        Long expiresAt = expirations.get(userId);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt - ticker.getAsLong() <= 0) {
+            expirations.remove(userId);
+            expiredEvictionCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private synchronized void put(Long userId) {
+        if (maxSize <= 0) {
+            return;
+        }
+        long now = ticker.getAsLong();
+        expirations.put(userId, now + ttlNanos);
+        Iterator<Map.Entry<Long, Long>> iterator = expirations.entrySet().iterator();
+        while (expirations.size() > maxSize && iterator.hasNext()) {
+            Map.Entry<Long, Long> eldest = iterator.next();
+            iterator.remove();
+            if (eldest.getValue() - now <= 0) {
+                expiredEvictionCounter.increment();
+            } else {
+                sizeEvictionCounter.increment();
+            }
+        }
+    }
+
+    private synchronized void remove(Long userId) {
+        if (expirations.remove(userId) != null) {
+            invalidationCounter.increment();
+        }
+    }
+
+    private double hitRatio() {
+        double requests = hitCounter.count() + missCounter.count();
+        return requests == 0 ? 0 : hitCounter.count() / requests;
+    }
+
+    private synchronized double size() {
+        return expirations.size();
+    }
+}
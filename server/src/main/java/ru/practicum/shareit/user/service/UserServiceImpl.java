@@ -3,8 +3,12 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.validator.routines.EmailValidator;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.change.ChangeNotifier;
+import ru.practicum.shareit.change.ChangeType;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.DuplicateEmailException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -15,7 +19,6 @@ import ru.practicum.shareit.user.repository.JpaUserRepository;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,15 +26,20 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
+    private static final String EMAIL_CONSTRAINT = "uq_user_email";
 
     private final JpaUserRepository userRepository;
+    private final UserExistenceCache userCache;
+    private final ChangeNotifier changeNotifier;
 
     @Override
     @Transactional
     public UserDto add(UserDto userDto) {
         User user = UserMapper.toUser(userDto);
         validateAddUser(user);
-        return UserMapper.toUserDto(userRepository.save(user));
+        UserDto savedUser = UserMapper.toUserDto(saveWithUniqueEmail(user));
+        changeNotifier.publish(ChangeType.USER, savedUser.getId());
+        return savedUser;
     }
 
     @Override
@@ -41,13 +49,17 @@ public class UserServiceImpl implements UserService {
         User user = UserMapper.toUser(userDto);
         validateUpdateUser(userId, user);
         user.setId(savedUser.getId());
+        user.setVersion(savedUser.getVersion());
+        userCache.invalidate(userId);
         if (user.getName() == null) {
             user.setName(savedUser.getName());
         }
         if (user.getEmail() == null) {
             user.setEmail(savedUser.getEmail());
         }
-        return UserMapper.toUserDto(userRepository.save(user));
+        UserDto updatedUser = UserMapper.toUserDto(saveWithUniqueEmail(user));
+        changeNotifier.publish(ChangeType.USER, userId);
+        return updatedUser;
     }
 
     @Override
@@ -65,7 +77,9 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void delete(Long userId) {
         validateIfNotExist(userId);
+        userCache.invalidate(userId);
         userRepository.deleteById(userId);
+        changeNotifier.publish(ChangeType.USER, userId);
     }
 
     public void validateAddUser(User user) {
@@ -104,10 +118,22 @@ public class UserServiceImpl implements UserService {
     }
 
     private void validateUniqueEmail(Long userId, User user) {
-        Set<String> emails = userRepository.findAll().stream().map(User::getEmail).collect(Collectors.toSet());
-        Optional<User> savedUser = userRepository.findById(userId);
-        savedUser.ifPresent(value -> emails.remove(value.getEmail()));
-        if (emails.contains(user.getEmail())) {
+        if (userRepository.existsByEmailAndIdNot(user.getEmail(), userId)) {
+            log.warn("Пользователь с таким email {} уже существует", user.getEmail());
+            throw new DuplicateEmailException("Пользователь с таким email уже существует");
+        }
+    }
+
+    private User saveWithUniqueEmail(User user) {
+        try {
+            User savedUser = userRepository.save(user);
+            userRepository.flush();
+            return savedUser;
+        } catch (DataIntegrityViolationException e) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (cause == null || !cause.toLowerCase().contains(EMAIL_CONSTRAINT)) {
+                throw e;
+            }
             log.warn("Пользователь с таким email {} уже существует", user.getEmail());
             throw new DuplicateEmailException("Пользователь с таким email уже существует");
         }
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.utility;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@UtilityClass
+public class EntityTags {
+
+    // Версии строк ответа, а не байты: JSON, Smile и gzip получают один слабый тег
+    public String of(List<String> versionStamps) {
+        String stamps = String.join(",", versionStamps);
+        return "W/\"" + DigestUtils.md5DigestAsHex(stamps.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public <T> String of(List<T> rows, Function<T, String> versionStamp) {
+        return of(rows.stream().map(versionStamp).collect(Collectors.toList()));
+    }
+
+    public String versionStamp(Object... parts) {
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("."));
+    }
+
+    public boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+}
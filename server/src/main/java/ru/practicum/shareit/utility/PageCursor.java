@@ -0,0 +1,61 @@
+package ru.practicum.shareit.utility;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class PageCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    public static PageCursor of(LocalDateTime timestamp, Long id) {
+        return new PageCursor(timestamp, id);
+    }
+
+    public static PageCursor of(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            String timestamp = value.substring(0, separator);
+            return new PageCursor(timestamp.isEmpty() ? null : LocalDateTime.parse(timestamp),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Передан некорректный курсор " + cursor);
+        }
+    }
+
+    public static PageCursor decodeWithTimestamp(String cursor) {
+        PageCursor pageCursor = decode(cursor);
+        if (pageCursor.getTimestamp() == null) {
+            throw new ValidationException("Передан некорректный курсор " + cursor);
+        }
+        return pageCursor;
+    }
+
+    public static <T> Optional<String> next(List<T> page, int size, Function<T, PageCursor> toCursor) {
+        return page.size() < size ? Optional.empty() : Optional.of(toCursor.apply(page.get(page.size() - 1)).encode());
+    }
+
+    public String encode() {
+        String value = (timestamp != null ? timestamp.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -22,4 +22,8 @@ public class PageUtils {
     public Pageable getPageable(int from, int size) {
         return getPageable(from, size, null);
     }
+
+    public Pageable getKeysetPageable(int size, Sort sort) {
+        return getPageable(0, size, sort);
+    }
 }
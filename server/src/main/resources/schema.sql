@@ -4,6 +4,7 @@ CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name varchar(255) NOT NULL,
     email varchar(512) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT uq_user_email UNIQUE (email)
 );
 
@@ -22,6 +23,7 @@ CREATE TABLE IF NOT EXISTS items (
     is_available   BOOLEAN NOT NULL,
     owner_id    BIGINT       NOT NULL,
     request_id  BIGINT,
+    version     BIGINT       NOT NULL DEFAULT 0,
     CONSTRAINT fk_items_to_requests FOREIGN KEY (request_id) REFERENCES requests (id),
     CONSTRAINT fk_items_to_users FOREIGN KEY (owner_id) REFERENCES users (id)
 );
@@ -33,6 +35,7 @@ CREATE TABLE IF NOT EXISTS bookings (
     item_id    BIGINT                      NOT NULL,
     booker_id  BIGINT                      NOT NULL,
     status     VARCHAR(64),
+    version    BIGINT                      NOT NULL DEFAULT 0,
     CONSTRAINT fk_bookings_to_items FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT fk_bookings_to_users FOREIGN KEY (booker_id) REFERENCES users (id)
 );
@@ -49,5 +52,6 @@ CREATE TABLE IF NOT EXISTS comments (
 
 CREATE INDEX idx_item_id ON comments(item_id);
 CREATE INDEX idx_owner_id ON items(owner_id);
-CREATE INDEX idx_booker_id ON bookings(booker_id);
-CREATE INDEX idx_item_owner_id ON bookings(item_id);
+CREATE INDEX idx_bookings_booker_start ON bookings(booker_id, start_date DESC);
+CREATE INDEX idx_bookings_booker_status_start ON bookings(booker_id, status, start_date DESC);
+CREATE INDEX idx_bookings_item_status_start ON bookings(item_id, status, start_date);
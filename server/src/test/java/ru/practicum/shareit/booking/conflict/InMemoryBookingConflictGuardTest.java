@@ -0,0 +1,132 @@
+package ru.practicum.shareit.booking.conflict;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.JpaBookingRepository;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryBookingConflictGuardTest {
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Mock
+    private JpaBookingRepository bookingRepository;
+    private InMemoryBookingConflictGuard conflictGuard;
+
+    @BeforeEach
+    void setUp() {
+        conflictGuard = new InMemoryBookingConflictGuard(bookingRepository, 2);
+    }
+
+    @Test
+    void checkAvailable_whenPeriodOverlapsApprovedBooking_thenBookingConflictExceptionThrown() {
+        when(bookingRepository.findPeriodsByItemIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(List.of(period(start, start.plusDays(2)), period(start.plusDays(1), start.plusDays(3)),
+                        period(start.plusDays(10), start.plusDays(11))));
+
+        assertThrows(BookingConflictException.class,
+                () -> conflictGuard.checkAvailable(1L, start.plusDays(2), start.plusDays(4)));
+        assertThrows(BookingConflictException.class,
+                () -> conflictGuard.checkAvailable(1L, start.minusDays(1), start.plusDays(20)));
+        assertDoesNotThrow(() -> conflictGuard.checkAvailable(1L, start.plusDays(3), start.plusDays(10)));
+        assertDoesNotThrow(() -> conflictGuard.checkAvailable(1L, start.minusDays(1), start));
+        verify(bookingRepository, times(1)).findPeriodsByItemIdAndStatus(1L, BookingStatus.APPROVED);
+    }
+
+    @Test
+    void approve_whenPeriodFree_thenBookingApprovedAndPeriodReserved() {
+        when(bookingRepository.findPeriodsByItemIdAndStatus(1L, BookingStatus.APPROVED)).thenReturn(List.of());
+        when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Booking booking = booking(start, start.plusDays(1));
+
+        assertEquals(BookingStatus.APPROVED, conflictGuard.approve(booking).getStatus());
+        assertThrows(BookingConflictException.class,
+                () -> conflictGuard.approve(booking(start.plusHours(1), start.plusHours(2))));
+        assertDoesNotThrow(() -> conflictGuard.checkAvailable(2L, start, start.plusDays(1)));
+    }
+
+    @Test
+    void checkAvailable_whenMaxItemsExceeded_thenLeastRecentlyUsedIndexReloaded() {
+        when(bookingRepository.findPeriodsByItemIdAndStatus(anyLong(), any())).thenReturn(List.of());
+
+        conflictGuard.checkAvailable(1L, start, start.plusDays(1));
+        conflictGuard.checkAvailable(2L, start, start.plusDays(1));
+        conflictGuard.checkAvailable(1L, start, start.plusDays(1));
+        conflictGuard.checkAvailable(3L, start, start.plusDays(1));
+        conflictGuard.checkAvailable(1L, start, start.plusDays(1));
+        conflictGuard.checkAvailable(2L, start, start.plusDays(1));
+
+        assertEquals(2, conflictGuard.size());
+        verify(bookingRepository, times(1)).findPeriodsByItemIdAndStatus(1L, BookingStatus.APPROVED);
+        verify(bookingRepository, times(2)).findPeriodsByItemIdAndStatus(2L, BookingStatus.APPROVED);
+    }
+
+    @Test
+    void approve_whenTransactionNotCompleted_thenIndexNotEvicted() {
+        when(bookingRepository.findPeriodsByItemIdAndStatus(anyLong(), any())).thenReturn(List.of());
+        when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            conflictGuard.approve(booking(start, start.plusDays(1)));
+            conflictGuard.checkAvailable(2L, start, start.plusDays(1));
+            conflictGuard.checkAvailable(3L, start, start.plusDays(1));
+
+            assertThrows(BookingConflictException.class,
+                    () -> conflictGuard.checkAvailable(1L, start.plusHours(1), start.plusHours(2)));
+            verify(bookingRepository, times(1)).findPeriodsByItemIdAndStatus(1L, BookingStatus.APPROVED);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(
+                            TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        conflictGuard.checkAvailable(4L, start, start.plusDays(1));
+        conflictGuard.checkAvailable(5L, start, start.plusDays(1));
+
+        assertEquals(2, conflictGuard.size());
+    }
+
+    private Booking booking(LocalDateTime bookingStart, LocalDateTime bookingEnd) {
+        return Booking.builder()
+                .start(bookingStart)
+                .end(bookingEnd)
+                .item(Item.builder().id(1L).build())
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+    private BookingPeriod period(LocalDateTime periodStart, LocalDateTime periodEnd) {
+        return new BookingPeriod() {
+            @Override
+            public LocalDateTime getStart() {
+                return periodStart;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return periodEnd;
+            }
+        };
+    }
+}
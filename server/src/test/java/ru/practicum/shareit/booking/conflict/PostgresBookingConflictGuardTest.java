@@ -0,0 +1,134 @@
+package ru.practicum.shareit.booking.conflict;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.AbstractPostgresTest;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.JpaBookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"shareit.booking.conflict-guard=postgres", "shareit.search.engine=postgres"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class PostgresBookingConflictGuardTest extends AbstractPostgresTest {
+    private final BookingConflictGuard conflictGuard;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final JpaBookingRepository bookingRepository;
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    public void setUp() {
+        ownerId = userService.add(UserDto.builder().name("owner").email("owner@email.ru").build()).getId();
+        bookerId = userService.add(UserDto.builder().name("booker").email("booker@email.ru").build()).getId();
+        itemId = itemService.add(ownerId, ItemDto.builder()
+                .name("useful thing")
+                .description("really useful")
+                .available(true)
+                .build()).getId();
+        start = LocalDateTime.now().plusDays(1);
+    }
+
+    @Test
+    void approve_whenPostgresGuardConfigured_thenPostgresGuardUsed() {
+        assertInstanceOf(PostgresBookingConflictGuard.class, conflictGuard);
+    }
+
+    @Test
+    void save_whenApprovedBookingsOverlapWithoutGuard_thenExclusionConstraintViolated() {
+        Long firstId = addBooking(start, start.plusDays(2));
+        Long overlappingId = addBooking(start.plusDays(1), start.plusDays(3));
+        bookingService.approve(ownerId, firstId, true);
+
+        Booking overlapping = bookingRepository.findById(overlappingId).orElseThrow();
+        overlapping.setStatus(BookingStatus.APPROVED);
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> bookingRepository.saveAndFlush(overlapping));
+        assertTrue(e.getMostSpecificCause().getMessage().contains("ex_bookings_approved_overlap"));
+    }
+
+    @Test
+    void approve_whenPeriodOverlapsApprovedBooking_thenBookingConflictExceptionThrown() {
+        Long firstId = addBooking(start, start.plusDays(2));
+        Long overlappingId = addBooking(start.plusDays(1), start.plusDays(3));
+        Long adjacentId = addBooking(start.plusDays(2), start.plusDays(4));
+
+        bookingService.approve(ownerId, firstId, true);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.approve(ownerId, overlappingId, true));
+        assertEquals(BookingStatus.WAITING, bookingService.findBookingById(ownerId, overlappingId).getStatus());
+        assertEquals(BookingStatus.APPROVED, bookingService.approve(ownerId, adjacentId, true).getStatus());
+    }
+
+    @Test
+    void approve_whenConflictingBookingsApprovedConcurrently_thenOnlyOneApproved() throws Exception {
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            bookingIds.add(addBooking(start.plusHours(i), start.plusDays(1)));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(bookingIds.size());
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (Long id : bookingIds) {
+            results.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.approve(ownerId, id, true);
+                    return true;
+                } catch (BookingConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        ready.countDown();
+        int approved = 0;
+        for (Future<Boolean> result : results) {
+            approved += result.get(10, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertEquals(1, approved);
+        assertEquals(1, bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .count());
+    }
+
+    private Long addBooking(LocalDateTime bookingStart, LocalDateTime bookingEnd) {
+        return bookingService.add(bookerId, BookingRequestDto.builder()
+                .itemId(itemId)
+                .start(bookingStart)
+                .end(bookingEnd)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.utility.PageCursor;
+
+import java.lang.reflect.Method;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.booking.repository.JpaBookingRepositoryQueryPlanTest$RecordingStatementInspector")
+@DirtiesContext
+class JpaBookingRepositoryQueryPlanTest {
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Autowired
+    private JpaBookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start", "id"));
+    private final PageCursor cursor = PageCursor.of(now, Long.MAX_VALUE);
+
+    @Test
+    void queryMethods_whenExplained_thenNoTableScans() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findAllByBookerId", () -> bookingRepository.findAllByBookerId(1L, pageable));
+        queries.put("findAllByBookerIdAndStartBeforeAndEndAfter",
+                () -> bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(1L, now, now, pageable));
+        queries.put("findAllByBookerIdAndEndBefore",
+                () -> bookingRepository.findAllByBookerIdAndEndBefore(1L, now, pageable));
+        queries.put("findAllByBookerIdAndStartAfter",
+                () -> bookingRepository.findAllByBookerIdAndStartAfter(1L, now, pageable));
+        queries.put("findAllByBookerIdAndStatus",
+                () -> bookingRepository.findAllByBookerIdAndStatus(1L, BookingStatus.WAITING, pageable));
+        queries.put("findAllByItemOwnerId", () -> bookingRepository.findAllByItemOwnerId(1L, pageable));
+        queries.put("findAllByItemOwnerIdAndEndBefore",
+                () -> bookingRepository.findAllByItemOwnerIdAndEndBefore(1L, now, pageable));
+        queries.put("findAllByItemOwnerIdAndStartAfter",
+                () -> bookingRepository.findAllByItemOwnerIdAndStartAfter(1L, now, pageable));
+        queries.put("findAllByItemOwnerIdAndStartBeforeAndEndAfter",
+                () -> bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfter(1L, now, now, pageable));
+        queries.put("findAllByItemOwnerIdAndStatus",
+                () -> bookingRepository.findAllByItemOwnerIdAndStatus(1L, BookingStatus.WAITING, pageable));
+        queries.put("findLastAndNextApprovedByItemIdIn",
+                () -> bookingRepository.findLastAndNextApprovedByItemIdIn(List.of(1L, 2L), now));
+        queries.put("findFirstByBookerIdAndItemIdAndStatusAndEndBefore",
+                () -> bookingRepository.findFirstByBookerIdAndItemIdAndStatusAndEndBefore(1L, 1L,
+                        BookingStatus.APPROVED, now));
+        queries.put("findAllByBookerIdAndStateAfter", () -> Arrays.stream(BookingState.values())
+                .forEach(state -> bookingRepository.findAllByBookerIdAndStateAfter(1L, state, now,
+                        cursor, PageRequest.of(0, 10))));
+        queries.put("findAllByItemOwnerIdAndStateAfter", () -> Arrays.stream(BookingState.values())
+                .forEach(state -> bookingRepository.findAllByItemOwnerIdAndStateAfter(1L, state, now,
+                        cursor, PageRequest.of(0, 10))));
+        queries.put("existsOverlapping",
+                () -> bookingRepository.existsOverlapping(1L, BookingStatus.APPROVED, now, now.plusDays(1)));
+        queries.put("findPeriodsByItemIdAndStatus",
+                () -> bookingRepository.findPeriodsByItemIdAndStatus(1L, BookingStatus.APPROVED));
+        queries.put("findVersionsByBookerIdAndState", () -> Arrays.stream(BookingState.values())
+                .forEach(state -> {
+                    bookingRepository.findVersionsByBookerIdAndState(1L, state, now, cursor, PageRequest.of(0, 10));
+                    bookingRepository.findVersionsByBookerIdAndState(1L, state, now, null, PageRequest.of(1, 10));
+                }));
+        queries.put("findVersionsByItemOwnerIdAndState", () -> Arrays.stream(BookingState.values())
+                .forEach(state -> {
+                    bookingRepository.findVersionsByItemOwnerIdAndState(1L, state, now, cursor, PageRequest.of(0, 10));
+                    bookingRepository.findVersionsByItemOwnerIdAndState(1L, state, now, null, PageRequest.of(1, 10));
+                }));
+        assertEquals(declaredQueryMethods(), queries.keySet());
+
+        queries.forEach((name, query) -> {
+            STATEMENTS.clear();
+            query.run();
+            assertFalse(STATEMENTS.isEmpty(), name);
+            STATEMENTS.forEach(sql -> {
+                String plan = explain(sql);
+                assertFalse(plan.contains("tableScan"), name + " выполняет полный просмотр таблицы:\n" + plan);
+            });
+        });
+    }
+
+    private Set<String> declaredQueryMethods() {
+        return Stream.of(JpaBookingRepository.class, BookingKeysetRepository.class)
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                ParameterMetaData parameters = statement.getParameterMetaData();
+                for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                    statement.setObject(i, sampleValue(parameters.getParameterType(i)));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    private Object sampleValue(int sqlType) {
+        switch (sqlType) {
+            case Types.TIMESTAMP:
+                return Timestamp.valueOf(now);
+            case Types.VARCHAR:
+                return BookingStatus.APPROVED.name();
+            default:
+                return 1L;
+        }
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            if (sql.toLowerCase().contains("bookings")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
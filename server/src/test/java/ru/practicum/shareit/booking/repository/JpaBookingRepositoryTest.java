@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.JpaItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.JpaUserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@DirtiesContext
+class JpaBookingRepositoryTest {
+
+    @Autowired
+    private JpaBookingRepository bookingRepository;
+    @Autowired
+    private JpaItemRepository itemRepository;
+    @Autowired
+    private JpaUserRepository userRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private User booker;
+    private Item item;
+    private Item emptyItem;
+
+    @BeforeEach
+    public void addBookings() {
+        User owner = userRepository.save(new User(null, "owner", "owner@user", 0L));
+        booker = userRepository.save(new User(null, "booker", "booker@user", 0L));
+        item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+        emptyItem = itemRepository.save(Item.builder()
+                .name("empty")
+                .description("without bookings")
+                .available(true)
+                .owner(owner)
+                .build());
+        addBooking(now.minusDays(3), BookingStatus.APPROVED);
+        addBooking(now.minusDays(1), BookingStatus.APPROVED);
+        addBooking(now.minusHours(1), BookingStatus.REJECTED);
+        addBooking(now.plusHours(1), BookingStatus.WAITING);
+        addBooking(now.plusDays(1), BookingStatus.APPROVED);
+        addBooking(now.plusDays(3), BookingStatus.APPROVED);
+    }
+
+    @Test
+    void findLastAndNextApprovedByItemIdIn() {
+        List<Booking> actualBookings =
+                bookingRepository.findLastAndNextApprovedByItemIdIn(List.of(item.getId(), emptyItem.getId()), now);
+
+        assertEquals(2, actualBookings.size());
+        Map<Boolean, Booking> byFuture = actualBookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getStart().isAfter(now), booking -> booking));
+        assertEquals(now.minusDays(1), byFuture.get(false).getStart());
+        assertEquals(now.plusDays(1), byFuture.get(true).getStart());
+        actualBookings.forEach(booking -> assertEquals(item.getId(), booking.getItem().getId()));
+    }
+
+    private void addBooking(LocalDateTime start, BookingStatus status) {
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusHours(2))
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+}
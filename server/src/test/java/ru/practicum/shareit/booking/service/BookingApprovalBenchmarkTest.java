@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext
+class BookingApprovalBenchmarkTest {
+    private static final int HISTORICAL_BOOKINGS = 100_000;
+    private static final int WARMUP_APPROVALS = 100;
+    private static final int MEASURED_APPROVALS = 500;
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    void approve_whenItemHasManyHistoricalBookings_thenLatencyStaysFlat() {
+        Long ownerId = userService.add(UserDto.builder().name("owner").email("owner@bench.ru").build()).getId();
+        Long bookerId = userService.add(UserDto.builder().name("booker").email("booker@bench.ru").build()).getId();
+        Long emptyItemId = addItem(ownerId, "empty");
+        Long busyItemId = addItem(ownerId, "busy");
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("insert into bookings (start_date, end_date, item_id, booker_id, status) " +
+                        "select dateadd(HOUR, -2 * x, cast(? as timestamp)), " +
+                        "dateadd(HOUR, -2 * x + 1, cast(? as timestamp)), " +
+                        "cast(? as bigint), cast(? as bigint), 'APPROVED' " +
+                        "from system_range(1, ?)", Timestamp.valueOf(now), Timestamp.valueOf(now), busyItemId,
+                bookerId, HISTORICAL_BOOKINGS);
+
+        long emptyMedian = measure(ownerId, bookerId, emptyItemId, now, "bookings=0");
+        long busyMedian = measure(ownerId, bookerId, busyItemId, now, "bookings=" + HISTORICAL_BOOKINGS);
+
+        assertTrue(busyMedian < Math.max(emptyMedian, 1_000) * 5,
+                "Approval latency grows with booking history: " + emptyMedian + "us vs " + busyMedian + "us");
+    }
+
+    private long measure(Long ownerId, Long bookerId, Long itemId, LocalDateTime now, String label) {
+        for (int i = 0; i < WARMUP_APPROVALS; i++) {
+            approve(ownerId, addBooking(bookerId, itemId, now, i));
+        }
+        long[] latencies = new long[MEASURED_APPROVALS];
+        for (int i = 0; i < MEASURED_APPROVALS; i++) {
+            Long bookingId = addBooking(bookerId, itemId, now, WARMUP_APPROVALS + i);
+            long start = System.nanoTime();
+            approve(ownerId, bookingId);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        log.info("{} approve p50={}us p99={}us", label,
+                latencies[MEASURED_APPROVALS / 2] / 1_000, latencies[MEASURED_APPROVALS * 99 / 100] / 1_000);
+        return latencies[MEASURED_APPROVALS / 2] / 1_000;
+    }
+
+    private Long addItem(Long ownerId, String name) {
+        return itemService.add(ownerId, ItemDto.builder().name(name).description(name).available(true).build())
+                .getId();
+    }
+
+    private Long addBooking(Long bookerId, Long itemId, LocalDateTime now, int slot) {
+        LocalDateTime start = now.plusDays(1).plusHours(2L * slot);
+        return bookingService.add(bookerId, BookingRequestDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusHours(1))
+                .build()).getId();
+    }
+
+    private void approve(Long ownerId, Long bookingId) {
+        bookingService.approve(ownerId, bookingId, true);
+    }
+}
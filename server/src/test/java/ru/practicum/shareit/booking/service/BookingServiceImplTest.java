@@ -6,11 +6,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.conflict.BookingConflictGuard;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.JpaBookingRepository;
+import ru.practicum.shareit.change.ChangeNotifier;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.DataAlreadyExistException;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -18,12 +21,15 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.JpaItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.JpaUserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -37,19 +43,25 @@ public class BookingServiceImplTest {
     @Mock
     private JpaUserRepository userRepository;
     @Mock
+    private UserExistenceCache userCache;
+    @Mock
+    private ChangeNotifier changeNotifier;
+    @Mock
     private JpaItemRepository itemRepository;
+    @Mock
+    private BookingConflictGuard conflictGuard;
 
     @Test
     public void createBooking_whenUserFound_andItemFound_thenSavedBooking() {
         Long itemId = 0L;
         Long userId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         Item item = Item.builder()
                 .id(itemId)
                 .name("Дрель")
                 .description("Простая дрель")
                 .available(true)
-                .owner(new User(999L, "owner", "owner@email"))
+                .owner(new User(999L, "owner", "owner@email", 0L))
                 .build();
         Booking booking = Booking.builder()
                 .booker(user)
@@ -75,13 +87,13 @@ public class BookingServiceImplTest {
     public void createBooking_whenUserNotFound_andItemNotFound_thenDataNotFoundExceptionThrown() {
         Long itemId = 0L;
         Long userId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         Item item = Item.builder()
                 .id(itemId)
                 .name("Дрель")
                 .description("Простая дрель")
                 .available(true)
-                .owner(new User(999L, "owner", "owner@email"))
+                .owner(new User(999L, "owner", "owner@email", 0L))
                 .build();
         Booking booking = Booking.builder()
                 .booker(user)
@@ -106,8 +118,8 @@ public class BookingServiceImplTest {
         Long itemId = 0L;
         Long userId = 0L;
         Long ownerId = 999L;
-        User user = new User(userId, "user", "user@user");
-        User owner = new User(ownerId, "owner", "owner@email");
+        User user = new User(userId, "user", "user@user", 0L);
+        User owner = new User(ownerId, "owner", "owner@email", 0L);
         Item item = Item.builder()
                 .id(itemId)
                 .name("Дрель")
@@ -143,13 +155,13 @@ public class BookingServiceImplTest {
         Long itemId = 0L;
         Long userId = 0L;
         Long bookingId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         Item item = Item.builder()
                 .id(itemId)
                 .name("Дрель")
                 .description("Простая дрель")
                 .available(true)
-                .owner(new User(999L, "owner", "owner@email"))
+                .owner(new User(999L, "owner", "owner@email", 0L))
                 .build();
         Booking booking = Booking.builder()
                 .id(bookingId)
@@ -167,18 +179,68 @@ public class BookingServiceImplTest {
         assertEquals(BookingStatus.REJECTED, activeBooking.getStatus());
     }
 
+    @Test
+    public void approve_whenApproved_thenApprovedThroughConflictGuard() {
+        Long bookingId = 0L;
+        Item item = Item.builder()
+                .id(0L)
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .owner(new User(999L, "owner", "owner@email", 0L))
+                .build();
+        Booking booking = Booking.builder()
+                .id(bookingId)
+                .booker(new User(0L, "user", "user@user", 0L))
+                .start(LocalDateTime.now())
+                .end(LocalDateTime.now().plusHours(24))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(conflictGuard.approve(booking)).thenThrow(new BookingConflictException("conflict"));
+
+        assertThrows(BookingConflictException.class, () -> bookingService.approve(999L, bookingId, true));
+        verify(bookingRepository, never()).save(booking);
+        verify(changeNotifier, never()).publish(any(), any());
+    }
+
+    @Test
+    public void createBooking_whenPeriodOverlapsApprovedBooking_thenBookingConflictExceptionThrown() {
+        User user = new User(0L, "user", "user@user", 0L);
+        Item item = Item.builder()
+                .id(0L)
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .owner(new User(999L, "owner", "owner@email", 0L))
+                .build();
+        BookingRequestDto bookingDto = BookingRequestDto.builder()
+                .itemId(0L)
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .build();
+        when(itemRepository.findById(0L)).thenReturn(Optional.of(item));
+        when(userRepository.findById(0L)).thenReturn(Optional.of(user));
+        doThrow(new BookingConflictException("conflict")).when(conflictGuard)
+                .checkAvailable(0L, bookingDto.getStart(), bookingDto.getEnd());
+
+        assertThrows(BookingConflictException.class, () -> bookingService.add(0L, bookingDto));
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     public void approve_whenBookingNotValid_thenExceptionThrown() {
         Long itemId = 0L;
         Long userId = 0L;
         Long bookingId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         Item item = Item.builder()
                 .id(itemId)
                 .name("Дрель")
                 .description("Простая дрель")
                 .available(true)
-                .owner(new User(999L, "owner", "owner@email"))
+                .owner(new User(999L, "owner", "owner@email", 0L))
                 .build();
         Booking booking = Booking.builder()
                 .id(bookingId)
@@ -204,13 +266,13 @@ public class BookingServiceImplTest {
         Long itemId = 0L;
         Long userId = 0L;
         Long bookingId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         Item item = Item.builder()
                 .id(itemId)
                 .name("Дрель")
                 .description("Простая дрель")
                 .available(true)
-                .owner(new User(999L, "owner", "owner@email"))
+                .owner(new User(999L, "owner", "owner@email", 0L))
                 .build();
         Booking booking = Booking.builder()
                 .id(bookingId)
@@ -220,7 +282,6 @@ public class BookingServiceImplTest {
                 .item(item)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
         BookingResponseDto expectedBooking = BookingMapper.toBookingResponseDto(booking);
         BookingResponseDto actualBooking = bookingService.findBookingById(userId, bookingId);
@@ -238,13 +299,13 @@ public class BookingServiceImplTest {
         Long itemId = 0L;
         Long userId = 0L;
         Long bookingId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         Item item = Item.builder()
                 .id(itemId)
                 .name("Дрель")
                 .description("Простая дрель")
                 .available(true)
-                .owner(new User(999L, "owner", "owner@email"))
+                .owner(new User(999L, "owner", "owner@email", 0L))
                 .build();
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
 
@@ -256,13 +317,13 @@ public class BookingServiceImplTest {
         Long itemId = 1L;
         Long userId = 1L;
         Long bookingId = 1L;
-        User user = new User(0L, "user", "user@user");
+        User user = new User(0L, "user", "user@user", 0L);
         Item item = Item.builder()
                 .id(itemId)
                 .name("Дрель")
                 .description("Простая дрель")
                 .available(true)
-                .owner(new User(999L, "owner", "owner@email"))
+                .owner(new User(999L, "owner", "owner@email", 0L))
                 .build();
         Booking booking = Booking.builder()
                 .id(bookingId)
@@ -281,13 +342,13 @@ public class BookingServiceImplTest {
         Long itemId = 0L;
         Long userId = 0L;
         Long bookingId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         Item item = Item.builder()
                 .id(itemId)
                 .name("Дрель")
                 .description("Простая дрель")
                 .available(true)
-                .owner(new User(999L, "owner", "owner@email"))
+                .owner(new User(999L, "owner", "owner@email", 0L))
                 .build();
         Booking booking = Booking.builder()
                 .id(bookingId)
@@ -297,7 +358,6 @@ public class BookingServiceImplTest {
                 .item(item)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
 
         assertThrows(DataNotFoundException.class, () -> bookingService.findBookingById(1L, bookingId));
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,19 +10,41 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.JpaBookingRepository;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.JpaItemRepository;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utility.EntityTags;
+import ru.practicum.shareit.utility.PageCursor;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
@@ -32,6 +56,9 @@ class BookingServiceIntegrationTest {
     private final UserService userService;
     private final ItemRequestService requestService;
     private final BookingService bookingService;
+    private final JpaBookingRepository bookingRepository;
+    private final JpaItemRepository itemRepository;
+    private final EntityManagerFactory entityManagerFactory;
     private UserDto ownerDto;
     private UserDto requesterDto;
     private ItemDto itemDto;
@@ -161,4 +188,226 @@ class BookingServiceIntegrationTest {
         assertThrows(DataNotFoundException.class, () ->
                 bookingService.findAllBookingByOwnerIdAndState(requestorId, "UNSUPPORTED", 0, 10));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getEntityTag_whenPageChanged_thenTagOfReturnedPageChanged() {
+        userService.add(ownerDto);
+        userService.add(requesterDto);
+        itemDto.setRequestId(null);
+        itemService.add(ownerId, itemDto);
+        bookingService.add(requestorId, bookingDto);
+        String cursor = PageCursor.of(LocalDateTime.now().plusYears(1), Long.MAX_VALUE).encode();
+        String userTag = bookingService.getEntityTagByUserIdAndState(requestorId, "ALL", 0, 10);
+        String ownerTag = bookingService.getEntityTagByOwnerIdAndState(ownerId, "ALL", 0, 10);
+
+        assertPageTags(userTag, ownerTag, cursor);
+        assertNotEquals(userTag, bookingService.getEntityTagByUserIdAndState(requestorId, "REJECTED", 0, 10));
+
+        bookingService.approve(ownerId, bookingId, true);
+        String approvedUserTag = bookingService.getEntityTagByUserIdAndState(requestorId, "ALL", 0, 10);
+        String approvedOwnerTag = bookingService.getEntityTagByOwnerIdAndState(ownerId, "ALL", 0, 10);
+        assertNotEquals(userTag, approvedUserTag);
+        assertNotEquals(ownerTag, approvedOwnerTag);
+        assertPageTags(approvedUserTag, approvedOwnerTag, cursor);
+
+        userService.update(requestorId, UserDto.builder().name("renamed").build());
+        assertEquals(approvedUserTag, bookingService.getEntityTagByUserIdAndState(requestorId, "ALL", 0, 10));
+
+        itemService.update(ownerId, itemId, ItemDto.builder().name("renamed").build());
+        assertNotEquals(approvedUserTag, bookingService.getEntityTagByUserIdAndState(requestorId, "ALL", 0, 10));
+        assertNotEquals(approvedOwnerTag, bookingService.getEntityTagByOwnerIdAndState(ownerId, "ALL", 0, 10));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                bookingService.getEntityTagByUserIdAndState(requestorId, "UNSUPPORTED", 0, 10));
+        assertThrows(DataNotFoundException.class, () ->
+                bookingService.getEntityTagByOwnerIdAndState(requestorId, "ALL", 0, 10));
+    }
+
+    @Test
+    void getEntityTag_whenBookingOutsidePageChanged_thenTagUnchanged() {
+        userService.add(ownerDto);
+        userService.add(requesterDto);
+        itemDto.setRequestId(null);
+        itemService.add(ownerId, itemDto);
+        bookingService.add(requestorId, bookingDto);
+        bookingService.add(requestorId, bookingPastDto);
+        String firstPageTag = bookingService.getEntityTagByUserIdAndState(requestorId, "ALL", 0, 1);
+        String secondPageTag = bookingService.getEntityTagByUserIdAndState(requestorId, "ALL", 1, 1);
+
+        bookingService.approve(ownerId, bookingPastId, true);
+
+        assertEquals(firstPageTag, bookingService.getEntityTagByUserIdAndState(requestorId, "ALL", 0, 1));
+        assertNotEquals(secondPageTag, bookingService.getEntityTagByUserIdAndState(requestorId, "ALL", 1, 1));
+    }
+
+    private void assertPageTags(String userTag, String ownerTag, String cursor) {
+        assertEquals(userTag, EntityTags.of(bookingService.findAllBookingByUserIdAndState(requestorId, "ALL", 0, 10),
+                BookingResponseDto::getVersionStamp));
+        assertEquals(ownerTag, EntityTags.of(bookingService.findAllBookingByOwnerIdAndState(ownerId, "ALL", 0, 10),
+                BookingResponseDto::getVersionStamp));
+        assertEquals(userTag, bookingService.getEntityTagByUserIdAndState(requestorId, "ALL", cursor, 10));
+        assertEquals(ownerTag, bookingService.getEntityTagByOwnerIdAndState(ownerId, "ALL", cursor, 10));
+        assertEquals(userTag, EntityTags.of(bookingService.findAllBookingByUserIdAndState(requestorId, "ALL",
+                cursor, 10), BookingResponseDto::getVersionStamp));
+    }
+
+    @Test
+    void findAllBookingByUserAndOwner_whenManyBookings_thenNoLazyLoadsForAnyState() {
+        userService.add(ownerDto);
+        userService.add(requesterDto);
+        itemDto.setRequestId(null);
+        itemService.add(ownerId, itemDto);
+        itemDto.setName("another thing");
+        itemService.add(ownerId, itemDto);
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 1; id <= 2; id++) {
+            addBooking(id, now.minusDays(2), now.minusDays(1), BookingStatus.APPROVED);
+            addBooking(id, now.minusHours(1), now.plusHours(1), BookingStatus.APPROVED);
+            addBooking(id, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+            addBooking(id, now.plusDays(3), now.plusDays(4), BookingStatus.REJECTED);
+        }
+        bookingService.findAllBookingByUserIdAndState(requestorId, "ALL", 0, 10);
+        bookingService.findAllBookingByOwnerIdAndState(ownerId, "ALL", 0, 10);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        for (BookingState state : BookingState.values()) {
+            statistics.clear();
+            List<BookingResponseDto> byBooker =
+                    bookingService.findAllBookingByUserIdAndState(requestorId, state.name(), 0, 10);
+            assertBookingsLoadedWithoutLazyLoads(statistics, byBooker, 1);
+
+            statistics.clear();
+            List<BookingResponseDto> byOwner =
+                    bookingService.findAllBookingByOwnerIdAndState(ownerId, state.name(), 0, 10);
+            assertBookingsLoadedWithoutLazyLoads(statistics, byOwner, 2);
+        }
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void findAllBookingByUserAndOwner_whenCursorPassed_thenPagesMatchOffsetPages() {
+        userService.add(ownerDto);
+        userService.add(requesterDto);
+        itemDto.setRequestId(null);
+        itemService.add(ownerId, itemDto);
+        LocalDateTime start = LocalDateTime.now().minusDays(10);
+        for (int i = 0; i < 7; i++) {
+            addBooking(itemId, start.plusDays(i / 2), start.plusDays(i / 2).plusHours(1), BookingStatus.APPROVED);
+        }
+
+        assertEquals(collectIds(bookingService.findAllBookingByUserIdAndState(requestorId, "ALL", 0, 10)),
+                collectIds(cursor -> cursor == null
+                        ? bookingService.findAllBookingByUserIdAndState(requestorId, "PAST", 0, 3)
+                        : bookingService.findAllBookingByUserIdAndState(requestorId, "PAST", cursor, 3)));
+        assertEquals(collectIds(bookingService.findAllBookingByOwnerIdAndState(ownerId, "ALL", 0, 10)),
+                collectIds(cursor -> cursor == null
+                        ? bookingService.findAllBookingByOwnerIdAndState(ownerId, "ALL", 0, 3)
+                        : bookingService.findAllBookingByOwnerIdAndState(ownerId, "ALL", cursor, 3)));
+        assertThrows(ValidationException.class, () ->
+                bookingService.findAllBookingByUserIdAndState(requestorId, "ALL", "broken", 3));
+    }
+
+    @Test
+    void approve_whenPeriodOverlapsApprovedBooking_thenBookingConflictExceptionThrown() {
+        userService.add(ownerDto);
+        userService.add(requesterDto);
+        itemDto.setRequestId(null);
+        itemService.add(ownerId, itemDto);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long firstId = bookingService.add(requestorId, bookingDto(start, start.plusDays(2))).getId();
+        Long overlappingId = bookingService.add(requestorId, bookingDto(start.plusDays(1), start.plusDays(3))).getId();
+        Long adjacentId = bookingService.add(requestorId, bookingDto(start.plusDays(2), start.plusDays(4))).getId();
+
+        bookingService.approve(ownerId, firstId, true);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.approve(ownerId, overlappingId, true));
+        assertEquals(BookingStatus.WAITING, bookingService.findBookingById(ownerId, overlappingId).getStatus());
+        assertEquals(BookingStatus.APPROVED, bookingService.approve(ownerId, adjacentId, true).getStatus());
+        assertThrows(BookingConflictException.class, () ->
+                bookingService.add(requestorId, bookingDto(start.minusHours(1), start.plusHours(1))));
+        assertEquals(BookingStatus.REJECTED, bookingService.approve(ownerId, overlappingId, false).getStatus());
+    }
+
+    @Test
+    void approve_whenConflictingBookingsApprovedConcurrently_thenOnlyOneApproved() throws Exception {
+        userService.add(ownerDto);
+        userService.add(requesterDto);
+        itemDto.setRequestId(null);
+        itemService.add(ownerId, itemDto);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            bookingIds.add(bookingService.add(requestorId, bookingDto(start.plusHours(i), start.plusDays(1))).getId());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(bookingIds.size());
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (Long id : bookingIds) {
+            results.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.approve(ownerId, id, true);
+                    return true;
+                } catch (BookingConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        ready.countDown();
+        int approved = 0;
+        for (Future<Boolean> result : results) {
+            approved += result.get(10, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertEquals(1, approved);
+        assertEquals(1, bookingService.findAllBookingByOwnerIdAndState(ownerId, "FUTURE", 0, 10).stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .count());
+    }
+
+    private BookingRequestDto bookingDto(LocalDateTime start, LocalDateTime end) {
+        return BookingRequestDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .build();
+    }
+
+    private static List<Long> collectIds(List<BookingResponseDto> bookings) {
+        return bookings.stream().map(BookingResponseDto::getId).collect(Collectors.toList());
+    }
+
+    private static List<Long> collectIds(Function<String, List<BookingResponseDto>> pageLoader) {
+        List<Long> ids = new ArrayList<>();
+        List<BookingResponseDto> page = pageLoader.apply(null);
+        while (!page.isEmpty()) {
+            page.forEach(booking -> ids.add(booking.getId()));
+            BookingResponseDto last = page.get(page.size() - 1);
+            page = pageLoader.apply(PageCursor.of(last.getStart(), last.getId()).encode());
+        }
+        return ids;
+    }
+
+    private void assertBookingsLoadedWithoutLazyLoads(Statistics statistics, List<BookingResponseDto> bookings,
+                                                      long expectedQueries) {
+        assertFalse(bookings.isEmpty());
+        bookings.forEach(booking -> {
+            assertEquals(requestorId, booking.getBooker().getId());
+            assertNotNull(booking.getItem().getName());
+        });
+        assertEquals(0, statistics.getEntityFetchCount());
+        assertEquals(expectedQueries, statistics.getPrepareStatementCount());
+    }
+
+    private void addBooking(Long bookedItemId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(itemRepository.getReferenceById(bookedItemId))
+                .booker(User.builder().id(requestorId).version(0L).build())
+                .status(status)
+                .build());
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.change;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext
+class ChangeNotifierIntegrationTest {
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void subscribe_whenUserUpdated_thenOnlyCommittedChangesReceived() throws Exception {
+        Long userId = userService.add(UserDto.builder().name("user").email("user@email.ru").build()).getId();
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/changes")).build(),
+                        HttpResponse.BodyHandlers.ofLines())
+                .get(5, TimeUnit.SECONDS);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.update(userId, UserDto.builder().name("rolled back").build());
+            status.setRollbackOnly();
+        });
+        userService.update(userId, UserDto.builder().name("committed").build());
+
+        Iterator<String> lines = response.body().iterator();
+        String data = null;
+        while (data == null && lines.hasNext()) {
+            String line = lines.next();
+            if (line.startsWith("data:")) {
+                data = line.substring("data:".length());
+            }
+        }
+        assertEquals("{\"type\":\"USER\",\"id\":" + userId + "}", data);
+        response.body().close();
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.execution;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import ru.practicum.shareit.booking.conflict.BookingConflictGuard;
+import ru.practicum.shareit.booking.conflict.InMemoryBookingConflictGuard;
+import ru.practicum.shareit.booking.conflict.PostgresBookingConflictGuard;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.PostgresItemSearchEngine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ClusterConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ClusterConfig.class)
+            .withPropertyValues("shareit.cluster.enabled=true");
+
+    @Test
+    void clusterConfig_whenPostgresEngines_thenContextStarts() {
+        contextRunner
+                .withBean(ItemSearchEngine.class, () -> mock(PostgresItemSearchEngine.class))
+                .withBean(BookingConflictGuard.class, () -> mock(PostgresBookingConflictGuard.class))
+                .run(context -> assertThat(context).hasNotFailed().hasSingleBean(ClusterConfig.class));
+    }
+
+    @Test
+    void clusterConfig_whenInMemorySearchEngine_thenContextFails() {
+        contextRunner
+                .withBean(ItemSearchEngine.class, () -> mock(InMemoryItemSearchEngine.class))
+                .withBean(BookingConflictGuard.class, () -> mock(PostgresBookingConflictGuard.class))
+                .run(context -> assertThat(context).getFailure()
+                        .hasRootCauseInstanceOf(IllegalStateException.class)
+                        .hasStackTraceContaining("shareit.search.engine=postgres"));
+    }
+
+    @Test
+    void clusterConfig_whenInMemoryConflictGuard_thenContextFails() {
+        contextRunner
+                .withBean(ItemSearchEngine.class, () -> mock(PostgresItemSearchEngine.class))
+                .withBean(BookingConflictGuard.class, () -> mock(InMemoryBookingConflictGuard.class))
+                .run(context -> assertThat(context).getFailure()
+                        .hasRootCauseInstanceOf(IllegalStateException.class)
+                        .hasStackTraceContaining("shareit.booking.conflict-guard=postgres"));
+    }
+
+    @Test
+    void clusterConfig_whenClusterDisabled_thenInMemoryEnginesAllowed() {
+        contextRunner
+                .withPropertyValues("shareit.cluster.enabled=false")
+                .withBean(ItemSearchEngine.class, () -> mock(InMemoryItemSearchEngine.class))
+                .withBean(BookingConflictGuard.class, () -> mock(InMemoryBookingConflictGuard.class))
+                .run(context -> assertThat(context).hasNotFailed().doesNotHaveBean(ClusterConfig.class));
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.execution;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.compression.enabled=true",
+        "server.compression.min-response-size=2KB"})
+@Import(CompressionThresholdFilterTest.PayloadController.class)
+class CompressionThresholdFilterTest {
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void doFilter_whenResponseSmallerThanMinSize_thenSentWithContentLength() throws Exception {
+        HttpResponse<byte[]> response = get(10, "gzip");
+
+        assertFalse(response.headers().firstValue("Content-Encoding").isPresent());
+        assertEquals(OptionalLong.of(response.body().length), response.headers().firstValueAsLong("Content-Length"));
+    }
+
+    @Test
+    void doFilter_whenResponseLargerThanMinSize_thenGzipped() throws Exception {
+        HttpResponse<byte[]> response = get(1000, "gzip");
+
+        assertEquals(Optional.of("gzip"), response.headers().firstValue("Content-Encoding"));
+        assertTrue(response.body().length < 1000);
+    }
+
+    @Test
+    void doFilter_whenClientDoesNotAcceptGzip_thenLargeResponseNotCompressed() throws Exception {
+        HttpResponse<byte[]> response = get(1000, null);
+
+        assertFalse(response.headers().firstValue("Content-Encoding").isPresent());
+        assertTrue(response.body().length > 2048);
+    }
+
+    private HttpResponse<byte[]> get(int size, String acceptEncoding) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/compression-test?size=" + size));
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    @RestController
+    static class PayloadController {
+
+        @GetMapping("/compression-test")
+        public List<String> payload(@RequestParam int size) {
+            return Collections.nCopies(size, "item");
+        }
+    }
+}
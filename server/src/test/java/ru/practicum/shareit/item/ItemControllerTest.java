@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
@@ -16,6 +17,7 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utility.EntityTags;
 
 import java.util.List;
 
@@ -29,6 +31,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -122,10 +125,55 @@ class ItemControllerTest {
                 .getContentAsString();
 
         verify(itemService).getById(userId, itemId);
+        verify(itemService, never()).getEntityTag(anyLong(), anyLong());
 
         assertEquals(expectedItemString, result);
     }
 
+    @Test
+    @SneakyThrows
+    void getById_whenEntityTagMatches_thenNotModified() {
+        Long itemId = 1L;
+        Long userId = 1L;
+        String tag = EntityTags.of(List.of("1.0"));
+        when(itemService.getEntityTag(userId, itemId))
+                .thenReturn(tag);
+
+        mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header("X-Sharer-User-Id", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, tag))
+                .andExpect(content().string(""));
+
+        verify(itemService, never()).getById(anyLong(), anyLong());
+    }
+
+    @Test
+    @SneakyThrows
+    void getById_whenEntityTagChanged_thenReturnedItemWithEntityTag() {
+        Long itemId = 1L;
+        Long userId = 1L;
+        ItemWithBookingDto expectedItem = ItemWithBookingDto.builder()
+                .id(itemId)
+                .name("Item")
+                .description("description")
+                .available(true)
+                .versionStamp("1.1")
+                .build();
+        when(itemService.getEntityTag(userId, itemId))
+                .thenReturn(EntityTags.of(List.of("1.1")));
+        when(itemService.getById(userId, itemId))
+                .thenReturn(expectedItem);
+
+        mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header("X-Sharer-User-Id", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, EntityTags.of(List.of("1.0"))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, EntityTags.of(List.of("1.1"))))
+                .andExpect(content().json(objectMapper.writeValueAsString(expectedItem)));
+    }
+
     @Test
     @SneakyThrows
     void getAllItems() {
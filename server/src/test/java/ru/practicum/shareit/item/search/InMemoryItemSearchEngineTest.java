@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.JpaItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+    @Mock
+    private JpaItemRepository itemRepository;
+    @Mock
+    private EntityManager entityManager;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InMemoryItemSearchEngine searchEngine;
+    private final Map<Long, Item> items = new HashMap<>();
+
+    @BeforeEach
+    public void setUp() {
+        searchEngine = new InMemoryItemSearchEngine(itemRepository, entityManager, meterRegistry);
+        lenient().when(itemRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(items::get).collect(Collectors.toList());
+        });
+        addItem(1L, "item", "findMe", true);
+        addItem(2L, "find", "findMe", false);
+    }
+
+    @Test
+    void search_whenItemNotAvailable_thenItemNotFound() {
+        List<Item> actualItems = searchEngine.search("find", PageRequest.of(0, 10));
+
+        assertEquals(1, actualItems.size());
+        assertEquals("item", actualItems.get(0).getName());
+    }
+
+    @Test
+    void search_whenSeveralMatches_thenSortedByRelevance() {
+        addItem(3L, "Аккумуляторная дрель", "Дрель с запасным аккумулятором", true);
+        addItem(4L, "Дрель", "Простая дрель", true);
+        addItem(5L, "Отвертка", "Подходит вместо дрели", true);
+        addItem(6L, "Дрель-шуруповерт", "Без зарядки", true);
+
+        List<Item> actualItems = searchEngine.search("дрел", PageRequest.of(0, 10));
+
+        assertEquals(List.of(4L, 3L, 6L, 5L), actualItems.stream().map(Item::getId).collect(Collectors.toList()));
+        assertEquals(List.of(6L, 5L), searchEngine.search("ДРЕЛ", PageRequest.of(1, 2)).stream()
+                .map(Item::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void search_whenItemUpdated_thenIndexUpdated() {
+        addItem(2L, "find", "findMe", true);
+        addItem(1L, "item", "hidden", true);
+
+        List<Item> actualItems = searchEngine.search("find", PageRequest.of(0, 10));
+
+        assertEquals(1, actualItems.size());
+        assertEquals("find", actualItems.get(0).getName());
+    }
+
+    @Test
+    void search_whenShortText_thenSubstringFound() {
+        List<Item> actualItems = searchEngine.search("it", PageRequest.of(0, 10));
+
+        assertEquals(1, actualItems.size());
+        assertEquals(1L, actualItems.get(0).getId());
+    }
+
+    @Test
+    void search_whenItemBecomesUnavailable_thenItemNotFound() {
+        addItem(1L, "item", "findMe", false);
+
+        assertTrue(searchEngine.search("find", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void rebuild_whenItemsInRepository_thenAllItemsIndexed() {
+        Item item = Item.builder()
+                .id(3L)
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .build();
+        items.put(3L, item);
+        when(itemRepository.streamAll()).thenReturn(Stream.of(item));
+
+        searchEngine.rebuild();
+
+        verify(entityManager).detach(item);
+        assertEquals(3.0, meterRegistry.get("shareit.search.index.documents").gauge().value());
+        assertEquals(3L, searchEngine.search("дрель", PageRequest.of(0, 10)).get(0).getId());
+    }
+
+    @Test
+    void search_whenSearched_thenMetricsRecorded() {
+        searchEngine.search("find", PageRequest.of(0, 10));
+        searchEngine.search("nothing", PageRequest.of(0, 10));
+
+        assertEquals(1.0, meterRegistry.get("shareit.search.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.search.requests").tag("result", "miss").counter().count());
+        assertEquals(2L, meterRegistry.get("shareit.search.latency").timer().count());
+        assertTrue(meterRegistry.get("shareit.search.index.memory").gauge().value() > 0);
+    }
+
+    private void addItem(Long id, String name, String description, boolean available) {
+        Item item = Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(new User(1L, "user", "user@user", 0L))
+                .build();
+        items.put(id, item);
+        searchEngine.index(item);
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.AbstractPostgresTest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.JpaItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.JpaUserRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "shareit.search.engine=postgres")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PostgresItemSearchEngine.class)
+class PostgresItemSearchEngineTest extends AbstractPostgresTest {
+
+    @Autowired
+    private PostgresItemSearchEngine searchEngine;
+    @Autowired
+    private JpaItemRepository itemRepository;
+    @Autowired
+    private JpaUserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+    private User owner;
+
+    @BeforeEach
+    public void addItems() {
+        owner = userRepository.save(new User(null, "user", "user@user", 0L));
+        addItem("item", "findMe", true);
+        addItem("find", "findMe", false);
+    }
+
+    @Test
+    void schema_whenPostgresPlatform_thenSearchIndexesCreated() {
+        List<?> indexes = entityManager.createNativeQuery("select indexname from pg_indexes " +
+                "where tablename = 'items'").getResultList();
+
+        assertTrue(indexes.containsAll(List.of("idx_items_name_trgm", "idx_items_description_trgm",
+                "idx_items_fts")), "Не созданы индексы поиска: " + indexes);
+    }
+
+    @Test
+    void search_whenItemNotAvailable_thenItemNotFound() {
+        List<Item> actualItems = searchEngine.search("find", PageRequest.of(0, 10));
+
+        assertEquals(List.of("item"), names(actualItems));
+    }
+
+    @Test
+    void search_whenWholeWordMatched_thenSortedByTextRankThenSimilarity() {
+        addDrills();
+
+        List<Item> actualItems = searchEngine.search("дрель", PageRequest.of(0, 10));
+
+        assertEquals(List.of("Дрель", "Аккумуляторная дрель", "Дрель-шуруповерт"), names(actualItems));
+    }
+
+    @Test
+    void search_whenSubstringMatched_thenCaseInsensitiveAndSortedBySimilarity() {
+        addDrills();
+
+        assertEquals(List.of("Дрель", "Дрель-шуруповерт", "Аккумуляторная дрель", "Отвертка"),
+                names(searchEngine.search("ДРЕЛ", PageRequest.of(0, 10))));
+        assertEquals(List.of("Аккумуляторная дрель", "Отвертка"),
+                names(searchEngine.search("дрел", PageRequest.of(1, 2))));
+        assertEquals(List.of("Аккумуляторная дрель", "Шуруповерт"),
+                names(searchEngine.search("умулятор", PageRequest.of(0, 10))));
+    }
+
+    private void addDrills() {
+        addItem("Аккумуляторная дрель", "Дрель с запасным аккумулятором", true);
+        addItem("Дрель", "Простая дрель", true);
+        addItem("Отвертка", "Подходит вместо дрели", true);
+        addItem("Дрель-шуруповерт", "Без зарядки", true);
+        addItem("Шуруповерт", "Аккумуляторный, две батареи", true);
+        addItem("Старая дрель", "Сломана", false);
+    }
+
+    private void addItem(String name, String description, boolean available) {
+        itemRepository.save(Item.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build());
+    }
+
+    private static List<String> names(List<Item> items) {
+        return items.stream().map(Item::getName).collect(Collectors.toList());
+    }
+}
@@ -8,9 +8,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.JpaBookingRepository;
+import ru.practicum.shareit.change.ChangeNotifier;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemMapper;
@@ -19,10 +20,13 @@ import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.JpaCommentRepository;
 import ru.practicum.shareit.item.repository.JpaItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.JpaItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.JpaUserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+import ru.practicum.shareit.utility.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -34,6 +38,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -48,11 +53,17 @@ public class ItemServiceImplTest {
     @Mock
     private JpaUserRepository userRepository;
     @Mock
+    private UserExistenceCache userCache;
+    @Mock
+    private ChangeNotifier changeNotifier;
+    @Mock
     private JpaBookingRepository bookingRepository;
     @Mock
     private JpaCommentRepository commentRepository;
     @Mock
     private JpaItemRequestRepository requestRepository;
+    @Mock
+    private ItemSearchEngine searchEngine;
 
     @Captor
     private ArgumentCaptor<Item> itemArgumentCaptor;
@@ -127,7 +138,7 @@ public class ItemServiceImplTest {
     public void updateItem_whenItemFound_thenUpdatedItem() {
         Long itemId = 0L;
         Long userId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         Item oldItem = Item.builder()
                 .name("Дрель")
                 .description("Простая дрель")
@@ -140,7 +151,6 @@ public class ItemServiceImplTest {
                 .available(false)
                 .build();
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(oldItem));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         ItemDto actualItemDto = itemService.update(userId, itemId, ItemMapper.toItemDto(newItem));
 
@@ -156,7 +166,7 @@ public class ItemServiceImplTest {
     public void updateOnlyItemName_whenItemFound_thenUpdatedItemName() {
         Long itemId = 0L;
         Long userId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         Item oldItem = Item.builder()
                 .name("Дрель")
                 .description("Простая дрель")
@@ -167,7 +177,6 @@ public class ItemServiceImplTest {
                 .name("Дрель2")
                 .build();
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(oldItem));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         ItemDto actualItemDto = itemService.update(userId, itemId, ItemMapper.toItemDto(newItem));
 
@@ -183,7 +192,7 @@ public class ItemServiceImplTest {
     public void updateOnlyItemDescription_whenItemFound_thenUpdatedItemDescription() {
         Long itemId = 0L;
         Long userId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         Item oldItem = Item.builder()
                 .name("Дрель")
                 .description("Простая дрель")
@@ -194,7 +203,6 @@ public class ItemServiceImplTest {
                 .description("Непростая дрель")
                 .build();
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(oldItem));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         ItemDto actualItemDto = itemService.update(userId, itemId, ItemMapper.toItemDto(newItem));
 
@@ -210,7 +218,7 @@ public class ItemServiceImplTest {
     public void updateOnlyItemavAilable_whenItemFound_thenUpdatedItemAvailable() {
         Long itemId = 0L;
         Long userId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         Item oldItem = Item.builder()
                 .name("Дрель")
                 .description("Простая дрель")
@@ -221,7 +229,6 @@ public class ItemServiceImplTest {
                 .available(false)
                 .build();
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(oldItem));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         ItemDto actualItemDto = itemService.update(userId, itemId, ItemMapper.toItemDto(newItem));
 
@@ -238,7 +245,7 @@ public class ItemServiceImplTest {
     public void updateItem_whenItemNotValid_thenUpdatedItem() {
         Long itemId = 0L;
         Long userId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         Item oldItem = Item.builder()
                 .name("Дрель")
                 .description("Простая дрель")
@@ -250,7 +257,6 @@ public class ItemServiceImplTest {
                 .description("")
                 .available(false)
                 .build();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         assertThrows(ValidationException.class,
                 () -> itemService.update(userId, itemId, ItemMapper.toItemDto(null)));
@@ -272,8 +278,8 @@ public class ItemServiceImplTest {
     public void getAllItems_whenOwnerFound_thenReturnedItemsList() {
         Long itemId = 0L;
         Long userId = 0L;
-        User user = new User(userId, "user", "user@user");
-        User booker = new User(3L, "booker", "booker@Booker");
+        User user = new User(userId, "user", "user@user", 0L);
+        User booker = new User(3L, "booker", "booker@Booker", 0L);
         Item item1 = Item.builder()
                 .id(1L)
                 .name("Дрель")
@@ -298,20 +304,17 @@ public class ItemServiceImplTest {
                 .build();
         Booking next = Booking.builder()
                 .id(2L)
-                .start(LocalDateTime.now())
+                .start(LocalDateTime.now().plusHours(1))
                 .end(LocalDateTime.now().plusHours(2))
                 .item(item1)
                 .booker(booker)
                 .build();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwnerId(userId, PageRequest.of(0, 10))).thenReturn(items);
+        when(itemRepository.findAllByOwnerId(userId, PageRequest.of(0, 10, Sort.by("id")))).thenReturn(items);
         List<ItemWithBookingDto> expectedItems = List.of(ItemMapper.toItemWithBookingDto(item1, last, next),
                 ItemMapper.toItemWithBookingDto(item2, null, null));
         expectedItems.forEach((item) -> item.setComments(Collections.emptyList()));
-        when(bookingRepository.findAllByItemInAndStatusAndStartBeforeAndStartNotOrderByItemIdAscStartDesc(any(),
-                any(BookingStatus.class), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of(last));
-        when(bookingRepository.findAllByItemInAndStatusAndStartAfterOrderByItemIdAscStartAsc(
-                any(), any(BookingStatus.class), any(LocalDateTime.class))).thenReturn(List.of(next));
+        when(bookingRepository.findLastAndNextApprovedByItemIdIn(any(), any(LocalDateTime.class)))
+                .thenReturn(List.of(last, next));
 
 
         List<ItemWithBookingDto> actualItems = itemService.getAllItems(userId, 0, 10);
@@ -329,11 +332,60 @@ public class ItemServiceImplTest {
     public void getAllItems_whenOwnerNotFound_thenDataNotFoundExceptionThrown() {
 
         Long userId = 0L;
-        User user = new User(userId, "user", "user@user");
-        User booker = new User(3L, "booker", "booker@Booker");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(itemRepository.findAllByOwnerId(userId, PageRequest.of(0, 10, Sort.by("id")))).thenReturn(List.of());
+
+        assertThrows(DataNotFoundException.class, () -> itemService.getAllItems(userId, 0, 10));
+        verify(userCache).validateExists(userId);
+    }
+
+    @Test
+    public void getAllItems_whenUserNotFound_thenDataNotFoundExceptionThrown() {
+        Long userId = 99L;
+        doThrow(new DataNotFoundException("Пользователь не найден")).when(userCache).validateExists(userId);
 
         assertThrows(DataNotFoundException.class, () -> itemService.getAllItems(userId, 0, 10));
+        verify(itemRepository, never()).findAllByOwnerId(any(), any());
+    }
+
+    @Test
+    public void getAllItemsByCursor_whenItemsAfterCursorFound_thenReturnedItemsList() {
+        Long userId = 0L;
+        User user = new User(userId, "user", "user@user", 0L);
+        Item item = Item.builder()
+                .id(3L)
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .owner(user)
+                .build();
+        when(itemRepository.findAllByOwnerIdAndIdGreaterThan(userId, 2L, PageRequest.of(0, 10, Sort.by("id"))))
+                .thenReturn(List.of(item));
+
+        List<ItemWithBookingDto> actualItems = itemService.getAllItems(userId, PageCursor.of(2L).encode(), 10);
+
+        assertEquals(1, actualItems.size());
+        assertEquals(item.getId(), actualItems.get(0).getId());
+        assertEquals(Collections.emptyList(), actualItems.get(0).getComments());
+    }
+
+    @Test
+    public void getAllItemsByCursor_whenCursorPastLastPage_thenReturnedEmptyList() {
+        Long userId = 0L;
+        when(itemRepository.existsByOwnerId(userId)).thenReturn(true);
+
+        List<ItemWithBookingDto> actualItems = itemService.getAllItems(userId, PageCursor.of(99L).encode(), 10);
+
+        assertEquals(Collections.emptyList(), actualItems);
+        verify(bookingRepository, never()).findLastAndNextApprovedByItemIdIn(any(), any());
+        verify(commentRepository, never()).findAllByItemIdInOrderByIdAsc(any());
+    }
+
+    @Test
+    public void getAllItemsByCursor_whenUserNotOwner_thenDataNotFoundExceptionThrown() {
+        Long userId = 0L;
+
+        assertThrows(DataNotFoundException.class,
+                () -> itemService.getAllItems(userId, PageCursor.of(0L).encode(), 10));
     }
 
     @Test
@@ -347,7 +399,7 @@ public class ItemServiceImplTest {
                 .build();
         String text = "Дрель";
         List<ItemDto> expectedItems = List.of(ItemMapper.toItemDto(item));
-        when(itemRepository.searchItems(text, PageRequest.of(0, 10))).thenReturn(List.of(item));
+        when(searchEngine.search(text, PageRequest.of(0, 10))).thenReturn(List.of(item));
 
         List<ItemDto> actualItems = itemService.searchItems(0L, text, 0, 10);
 
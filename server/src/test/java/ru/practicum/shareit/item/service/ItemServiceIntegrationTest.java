@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,15 +15,24 @@ import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.JpaCommentRepository;
+import ru.practicum.shareit.item.repository.JpaItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utility.EntityTags;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -35,6 +46,9 @@ public class ItemServiceIntegrationTest {
     private final UserService userService;
     private final ItemRequestService requestService;
     private final BookingService bookingService;
+    private final JpaItemRepository itemRepository;
+    private final JpaCommentRepository commentRepository;
+    private final EntityManagerFactory entityManagerFactory;
     private UserDto ownerDto;
     private UserDto requesterDto;
     private ItemDto itemDto;
@@ -189,5 +203,104 @@ public class ItemServiceIntegrationTest {
 
     }
 
+    @Test
+    public void getAllItems_whenItemsWithComments_thenQueryCountNotDependsOnPageSize() {
+        userService.add(ownerDto);
+        userService.add(requesterDto);
+        addItemsWithComments(2);
+        itemService.getAllItems(ownerId, 0, 20);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        statistics.clear();
+        List<ItemWithBookingDto> smallPage = itemService.getAllItems(ownerId, 0, 20);
+        long smallPageQueries = statistics.getPrepareStatementCount();
+
+        addItemsWithComments(10);
+        statistics.clear();
+        List<ItemWithBookingDto> bigPage = itemService.getAllItems(ownerId, 0, 20);
+        long bigPageQueries = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertEquals(2, smallPage.size());
+        assertEquals(12, bigPage.size());
+        assertEquals(smallPageQueries, bigPageQueries);
+        bigPage.forEach(item -> {
+            assertEquals(2, item.getComments().size());
+            assertEquals("requestor", item.getComments().get(0).getAuthorName());
+        });
+    }
+
+    @Test
+    public void getEntityTag_whenItemUnchanged_thenSameTagWithoutBookingQueries() {
+        userService.add(ownerDto);
+        userService.add(requesterDto);
+        requestService.add(requestorId, itemRequestDto);
+        itemService.add(ownerId, itemDto);
+        bookingService.add(requestorId, bookingDto);
+        bookingService.add(requestorId, bookingPastDto);
+        bookingService.approve(ownerId, bookingPastId, true);
+        String requestorTag = itemService.getEntityTag(requestorId, itemId);
+        String ownerTag = itemService.getEntityTag(ownerId, itemId);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        statistics.clear();
+        String unchangedTag = itemService.getEntityTag(requestorId, itemId);
+        long queries = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
 
+        assertEquals(requestorTag, unchangedTag);
+        assertEquals(2, queries);
+        assertEquals(requestorTag, EntityTags.of(List.of(itemService.getById(requestorId, itemId).getVersionStamp())));
+        assertEquals(ownerTag, EntityTags.of(List.of(itemService.getById(ownerId, itemId).getVersionStamp())));
+
+        bookingService.approve(ownerId, bookingId, true);
+        assertEquals(requestorTag, itemService.getEntityTag(requestorId, itemId));
+        assertNotEquals(ownerTag, itemService.getEntityTag(ownerId, itemId));
+
+        itemService.addComment(requestorId, commentDto, itemId);
+        String commentedTag = itemService.getEntityTag(requestorId, itemId);
+        assertNotEquals(requestorTag, commentedTag);
+
+        userService.update(requestorId, UserDto.builder().name("renamed").build());
+        assertNotEquals(commentedTag, itemService.getEntityTag(requestorId, itemId));
+    }
+
+    @Test
+    public void getAllItemsEntityTag_whenItemUpdated_thenTagChanged() {
+        userService.add(ownerDto);
+        itemDto.setRequestId(null);
+        itemService.add(ownerId, itemDto);
+        String tag = itemService.getAllItemsEntityTag(ownerId, 0, 10);
+
+        assertEquals(tag, itemService.getAllItemsEntityTag(ownerId, 0, 10));
+        assertEquals(tag, EntityTags.of(itemService.getAllItems(ownerId, 0, 10),
+                ItemWithBookingDto::getVersionStamp));
+
+        itemService.update(ownerId, itemId, ItemDto.builder().name("renamed").build());
+
+        assertNotEquals(tag, itemService.getAllItemsEntityTag(ownerId, 0, 10));
+    }
+
+    private void addItemsWithComments(int count) {
+        User owner = User.builder().id(ownerId).version(0L).build();
+        User author = User.builder().id(requestorId).version(0L).build();
+        for (int i = 0; i < count; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("thing " + i)
+                    .description("description " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            for (int j = 0; j < 2; j++) {
+                commentRepository.save(Comment.builder()
+                        .text("comment " + j)
+                        .item(item)
+                        .author(author)
+                        .created(LocalDateTime.now())
+                        .build());
+            }
+        }
+    }
 }
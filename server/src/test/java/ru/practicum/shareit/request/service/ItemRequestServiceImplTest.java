@@ -5,6 +5,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.change.ChangeNotifier;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.item.repository.JpaItemRepository;
 import ru.practicum.shareit.request.ItemRequestMapper;
@@ -13,9 +14,12 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.JpaItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.JpaUserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+import ru.practicum.shareit.utility.PageCursor;
 
 import java.time.LocalDateTime;
 import java.time.Month;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -34,13 +38,17 @@ public class ItemRequestServiceImplTest {
     @Mock
     private JpaUserRepository userRepository;
     @Mock
+    private UserExistenceCache userCache;
+    @Mock
+    private ChangeNotifier changeNotifier;
+    @Mock
     private JpaItemRepository itemRepository;
 
     @Test
     public void createRequest_whenRequestorFound_thenSavedRequest() {
         Long userId = 0L;
         Long requestId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         ItemRequest request = ItemRequest.builder()
                 .id(requestId)
                 .description("description")
@@ -62,12 +70,12 @@ public class ItemRequestServiceImplTest {
     public void createRequest_whenRequestorNotFound_thenDataNotFoundExceptionThrown() {
         Long userId = 0L;
         Long requestId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         ItemRequest request = ItemRequest.builder()
                 .id(requestId)
                 .description("description")
                 .created(LocalDateTime.of(2024, Month.APRIL, 4, 12, 0, 0))
-                .requestor(new User(99L, "not", "not@hot"))
+                .requestor(new User(99L, "not", "not@hot", 0L))
                 .build();
         ItemRequestDto expectedRequest = ItemRequestMapper.toItemRequestDto(request);
         when(userRepository.findById(99L)).thenReturn(Optional.empty());
@@ -81,7 +89,7 @@ public class ItemRequestServiceImplTest {
     public void findById_whenRequestFound_thenReturnedRequest() {
         Long userId = 0L;
         Long requestId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         ItemRequest request = ItemRequest.builder()
                 .id(requestId)
                 .description("description")
@@ -89,7 +97,6 @@ public class ItemRequestServiceImplTest {
                 .requestor(user)
                 .build();
         ItemRequestDto expectedRequest = ItemRequestMapper.toItemRequestDto(request);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(requestRepository.findById(requestId)).thenReturn(Optional.of(request));
 
         ItemRequestDto actualRequest = itemRequestService.findById(userId, requestId);
@@ -103,7 +110,7 @@ public class ItemRequestServiceImplTest {
     public void findById_whenRequestNotFound_thenReturnedRequest() {
         Long userId = 0L;
         Long requestId = 0L;
-        User user = new User(userId, "user", "user@user");
+        User user = new User(userId, "user", "user@user", 0L);
         ItemRequest request = ItemRequest.builder()
                 .id(requestId)
                 .description("description")
@@ -111,10 +118,24 @@ public class ItemRequestServiceImplTest {
                 .requestor(user)
                 .build();
         ItemRequestDto expectedRequest = ItemRequestMapper.toItemRequestDto(request);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(requestRepository.findById(requestId)).thenReturn(Optional.empty());
 
         assertThrows(DataNotFoundException.class, () -> itemRequestService.findById(userId, requestId));
 
     }
+
+    @Test
+    public void findAllByCursor_whenCursorPastLastPage_thenReturnedEmptyList() {
+        Long userId = 0L;
+        User user = new User(userId, "user", "user@user", 0L);
+        LocalDateTime created = LocalDateTime.of(2024, Month.APRIL, 4, 12, 0, 0);
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+        when(requestRepository.findAllByRequestorNotAfter(any(), any(), any(), any())).thenReturn(List.of());
+
+        List<ItemRequestDto> actualRequests = itemRequestService.findAll(userId,
+                PageCursor.of(created, 1L).encode(), 10);
+
+        assertEquals(List.of(), actualRequests);
+        verify(itemRepository, never()).findAllByRequestInOrderByIdAsc(any());
+    }
 }
@@ -15,11 +15,16 @@ import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utility.EntityTags;
+import ru.practicum.shareit.utility.PageCursor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
@@ -105,6 +110,31 @@ class ItemRequestServiceIntegrationTest {
         assertEquals(1, result.get(0).getItems().size());
     }
 
+    @Test
+    void getEntityTag_whenItemAddedOrUpdated_thenTagChanged() {
+        userService.add(ownerDto);
+        userService.add(requesterDto);
+        requestService.add(requestorId, itemRequestDto);
+        String userTag = requestService.getEntityTagByUserId(requestorId);
+        String allTag = requestService.getAllEntityTag(ownerId, 0, 10);
+
+        assertEquals(userTag, requestService.getEntityTagByUserId(requestorId));
+        assertEquals(allTag, requestService.getAllEntityTag(ownerId, 0, 10));
+        assertEquals(allTag, EntityTags.of(requestService.findAll(ownerId, 0, 10), ItemRequestDto::getVersionStamp));
+
+        itemService.add(ownerId, itemDto);
+        String addedUserTag = requestService.getEntityTagByUserId(requestorId);
+        String addedAllTag = requestService.getAllEntityTag(ownerId, 0, 10);
+        assertNotEquals(userTag, addedUserTag);
+        assertNotEquals(allTag, addedAllTag);
+        assertEquals(addedAllTag, EntityTags.of(requestService.findAll(ownerId, 0, 10),
+                ItemRequestDto::getVersionStamp));
+
+        itemService.update(ownerId, itemId, ItemDto.builder().available(false).build());
+        assertNotEquals(addedUserTag, requestService.getEntityTagByUserId(requestorId));
+        assertNotEquals(addedAllTag, requestService.getAllEntityTag(ownerId, 0, 10));
+    }
+
     @Test
     void findAll() {
         userService.add(ownerDto);
@@ -124,4 +154,29 @@ class ItemRequestServiceIntegrationTest {
         assertThrows(ValidationException.class, () -> requestService.findAll(ownerId, -1, 10));
         assertThrows(ValidationException.class, () -> requestService.findAll(ownerId, 0, 0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAll_whenCursorPassed_thenPagesMatchOffsetPages() {
+        userService.add(ownerDto);
+        userService.add(requesterDto);
+        itemRequestDto.setId(null);
+        for (int i = 0; i < 5; i++) {
+            requestService.add(requestorId, itemRequestDto);
+        }
+        List<Long> expectedIds = requestService.findAll(ownerId, 0, 10).stream()
+                .map(ItemRequestDto::getId).collect(Collectors.toList());
+
+        List<Long> actualIds = new ArrayList<>();
+        List<ItemRequestDto> page = requestService.findAll(ownerId, 0, 2);
+        while (!page.isEmpty()) {
+            page.forEach(request -> actualIds.add(request.getId()));
+            ItemRequestDto last = page.get(page.size() - 1);
+            page = requestService.findAll(ownerId, PageCursor.of(last.getCreated(), last.getId()).encode(), 2);
+        }
+
+        assertEquals(5, expectedIds.size());
+        assertEquals(expectedIds, actualIds);
+        assertThrows(ValidationException.class, () -> requestService.findAll(ownerId, "broken", 2));
+        assertThrows(ValidationException.class, () -> requestService.findAll(ownerId, PageCursor.of(1L).encode(), 2));
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.user.repository.JpaUserRepository;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceCacheTest {
+    @Mock
+    private JpaUserRepository userRepository;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong time = new AtomicLong();
+    private UserExistenceCache userCache;
+
+    @BeforeEach
+    public void setUp() {
+        userCache = new UserExistenceCache(userRepository, meterRegistry, 2, Duration.ofMinutes(5), time::get);
+        lenient().when(userRepository.existsById(anyLong())).thenReturn(true);
+    }
+
+    @Test
+    void validateExists_whenCalledTwice_thenRepositoryQueriedOnce() {
+        userCache.validateExists(1L);
+        userCache.validateExists(1L);
+
+        verify(userRepository, times(1)).existsById(1L);
+        assertEquals(1.0, meterRegistry.get("shareit.user.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.user.cache.requests").tag("result", "miss").counter().count());
+        assertEquals(0.5, meterRegistry.get("shareit.user.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void validateExists_whenUserNotFound_thenExceptionThrownAndNotCached() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(DataNotFoundException.class, () -> userCache.validateExists(1L));
+        assertThrows(DataNotFoundException.class, () -> userCache.validateExists(1L));
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void validateExists_whenTtlExpired_thenRepositoryQueriedAgain() {
+        userCache.validateExists(1L);
+        time.addAndGet(Duration.ofMinutes(6).toNanos());
+        userCache.validateExists(1L);
+
+        verify(userRepository, times(2)).existsById(1L);
+        assertEquals(1.0, meterRegistry.get("shareit.user.cache.evictions").tag("cause", "expired").counter().count());
+    }
+
+    @Test
+    void validateExists_whenMaxSizeExceeded_thenLeastRecentlyUsedEvicted() {
+        userCache.validateExists(1L);
+        userCache.validateExists(2L);
+        userCache.validateExists(1L);
+        userCache.validateExists(3L);
+        userCache.validateExists(1L);
+        userCache.validateExists(2L);
+
+        verify(userRepository, times(1)).existsById(1L);
+        verify(userRepository, times(2)).existsById(2L);
+        assertEquals(2.0, meterRegistry.get("shareit.user.cache.evictions").tag("cause", "size").counter().count());
+        assertEquals(2.0, meterRegistry.get("shareit.user.cache.size").gauge().value());
+    }
+
+    @Test
+    void validateExists_whenClusterEnabled_thenRepositoryQueriedEveryTime() {
+        userCache = new UserExistenceCache(userRepository, new SimpleMeterRegistry(), 2, Duration.ofMinutes(5), true);
+
+        userCache.validateExists(1L);
+        userCache.validateExists(1L);
+
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void invalidate_whenUserCached_thenRepositoryQueriedAgain() {
+        userCache.validateExists(1L);
+        userCache.invalidate(1L);
+        userCache.validateExists(1L);
+
+        verify(userRepository, times(2)).existsById(1L);
+        assertEquals(1.0,
+                meterRegistry.get("shareit.user.cache.evictions").tag("cause", "invalidated").counter().count());
+    }
+}
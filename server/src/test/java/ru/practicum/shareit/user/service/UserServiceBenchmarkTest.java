@@ -0,0 +1,64 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext
+class UserServiceBenchmarkTest {
+    private static final int[] USER_COUNTS = {1_000, 10_000, 100_000, 1_000_000};
+    private static final int WARMUP_UPDATES = 200;
+    private static final int MEASURED_UPDATES = 500;
+
+    private final UserService userService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    void update_whenUserCountGrows_thenLatencyStaysFlat() {
+        Long userId = userService.add(UserDto.builder().name("bench").email("bench@email.ru").build()).getId();
+        Map<Integer, Long> medians = new LinkedHashMap<>();
+        int seeded = 1;
+        for (int userCount : USER_COUNTS) {
+            jdbcTemplate.update("insert into users (name, email) " +
+                    "select 'user' || x, 'user' || x || '@email.ru' from system_range(?, ?)", seeded + 1, userCount);
+            seeded = userCount;
+            for (int i = 0; i < WARMUP_UPDATES; i++) {
+                updateEmail(userId, userCount, "warmup" + i);
+            }
+            long[] latencies = new long[MEASURED_UPDATES];
+            for (int i = 0; i < MEASURED_UPDATES; i++) {
+                long start = System.nanoTime();
+                updateEmail(userId, userCount, "measure" + i);
+                latencies[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(latencies);
+            medians.put(userCount, latencies[MEASURED_UPDATES / 2] / 1_000);
+            log.info("users={} update p50={}us p99={}us", userCount,
+                    latencies[MEASURED_UPDATES / 2] / 1_000, latencies[MEASURED_UPDATES * 99 / 100] / 1_000);
+        }
+
+        long smallest = medians.get(USER_COUNTS[0]);
+        long largest = medians.get(USER_COUNTS[USER_COUNTS.length - 1]);
+        assertTrue(largest < smallest * 5, "Update latency grows with user count: " + medians);
+    }
+
+    private void updateEmail(Long userId, int userCount, String suffix) {
+        userService.update(userId, UserDto.builder().email(suffix + "-" + userCount + "@bench.ru").build());
+    }
+}
@@ -8,6 +8,9 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.change.ChangeNotifier;
+import ru.practicum.shareit.change.ChangeType;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.DuplicateEmailException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -16,6 +19,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.JpaUserRepository;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +40,10 @@ public class UserServiceImplTest {
     private UserServiceImpl userService;
     @Mock
     private JpaUserRepository userRepository;
+    @Mock
+    private UserExistenceCache userCache;
+    @Mock
+    private ChangeNotifier changeNotifier;
     private User expectedUser;
     private UserDto expectedUserDto;
     @Captor
@@ -96,6 +104,7 @@ public class UserServiceImplTest {
 
         assertEquals(newUser.getName(), savedUser.getName());
         assertEquals(newUser.getEmail(), savedUser.getEmail());
+        verify(changeNotifier).publish(ChangeType.USER, userId);
 
     }
 
@@ -150,7 +159,7 @@ public class UserServiceImplTest {
                 .name("old")
                 .email("old@user.com")
                 .build();
-        User newUser = new User(userId, "", "");
+        User newUser = new User(userId, "", "", 0L);
         when(userRepository.findById(userId)).thenReturn(Optional.of(oldUser));
 
         assertThrows(ValidationException.class,
@@ -182,8 +191,7 @@ public class UserServiceImplTest {
                 .email("new@user.com")
                 .build();
         when(userRepository.findById(userId)).thenReturn(Optional.of(oldUser));
-        when(userRepository.findAll()).thenReturn(List.of(new User(99L, "duplicate", "new@user.com"),
-                oldUser));
+        when(userRepository.existsByEmailAndIdNot("new@user.com", userId)).thenReturn(true);
 
         assertThrows(DuplicateEmailException.class,
                 () -> userService.update(userId, UserMapper.toUserDto(newUser)));
@@ -191,6 +199,36 @@ public class UserServiceImplTest {
 
     }
 
+    @Test
+    public void updateUser_whenEmailConstraintViolated_thenDuplicateEmailException() {
+        Long userId = 0L;
+        User oldUser = User.builder()
+                .name("old")
+                .email("old@user.com")
+                .build();
+        User newUser = User.builder()
+                .name("new")
+                .email("new@user.com")
+                .build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(oldUser));
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("duplicate key value violates unique constraint \"uq_user_email\"")))
+                .when(userRepository).flush();
+
+        assertThrows(DuplicateEmailException.class,
+                () -> userService.update(userId, UserMapper.toUserDto(newUser)));
+    }
+
+    @Test
+    public void createUser_whenOtherConstraintViolated_thenExceptionRethrown() {
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("null value in column \"name\" violates not-null constraint")))
+                .when(userRepository).flush();
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> userService.add(UserMapper.toUserDto(expectedUser)));
+    }
+
     @Test
     public void getUserById_whenUserFound_thenReturnedUser() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(expectedUser));
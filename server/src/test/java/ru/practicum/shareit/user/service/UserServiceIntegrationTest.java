@@ -0,0 +1,55 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.DuplicateEmailException;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class UserServiceIntegrationTest {
+
+    private final UserService userService;
+    private UserDto userDto;
+    private UserDto otherUserDto;
+
+    @BeforeEach
+    public void setUp() {
+        userDto = UserDto.builder()
+                .name("user")
+                .email("user@email.ru")
+                .build();
+        otherUserDto = UserDto.builder()
+                .name("other")
+                .email("other@email.ru")
+                .build();
+    }
+
+    @Test
+    void add_whenEmailAlreadyUsed_thenDuplicateEmailExceptionThrown() {
+        userService.add(userDto);
+
+        assertThrows(DuplicateEmailException.class, () -> userService.add(userDto));
+    }
+
+    @Test
+    void update_whenEmailUsedByOtherUser_thenDuplicateEmailExceptionThrown() {
+        Long userId = userService.add(userDto).getId();
+        userService.add(otherUserDto);
+
+        assertThrows(DuplicateEmailException.class, () -> userService.update(userId,
+                UserDto.builder().email("other@email.ru").build()));
+
+        UserDto result = userService.update(userId, UserDto.builder().name("new").email("user@email.ru").build());
+        assertEquals("new", result.getName());
+        assertEquals("user@email.ru", result.getEmail());
+    }
+}